@@ -0,0 +1,70 @@
+package com.example.bookfair.bff;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerInitializedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Non-blocking JSON GETs for the BFF endpoints, sent back through this gateway's own routes.
+ * Each call therefore passes the same global filters as a client request: JWT verification
+ * and identity headers, the response cache, request coalescing, rate limits, load balancing
+ * and route metrics. Calls never error: failures are returned as a {@link BackendResult}
+ * so one slow or failing backend cannot fail the whole aggregate.
+ */
+@Component
+public class BackendClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackendClient.class);
+
+    @Value("${gateway.bff.timeout-ms:5000}")
+    private long timeoutMs;
+
+    private final WebClient webClient;
+
+    // Loopback address of this gateway, known once the server has started
+    private volatile URI gatewayUri;
+
+    public BackendClient(WebClient.Builder webClientBuilder) {
+        this.webClient = webClientBuilder.build();
+    }
+
+    @EventListener
+    public void onServerStarted(ReactiveWebServerInitializedEvent event) {
+        // Ignore a separate management server, if one is configured
+        if (event.getApplicationContext().getServerNamespace() == null) {
+            gatewayUri = URI.create("http://localhost:" + event.getWebServer().getPort());
+        }
+    }
+
+    public Mono<BackendResult> get(String path, HttpHeaders headers) {
+        URI base = gatewayUri;
+        if (base == null) {
+            return Mono.just(BackendResult.unavailable());
+        }
+        return webClient.get()
+                .uri(base.resolve(path))
+                .headers(h -> h.addAll(headers))
+                .accept(MediaType.APPLICATION_JSON)
+                .exchangeToMono(response -> {
+                    int status = response.statusCode().value();
+                    return response.bodyToMono(Object.class)
+                            .map(body -> new BackendResult(status, body))
+                            .defaultIfEmpty(new BackendResult(status, null));
+                })
+                .timeout(Duration.ofMillis(timeoutMs))
+                .onErrorResume(e -> {
+                    logger.warn("BFF call to {} failed: {}", path, e.getMessage());
+                    return Mono.just(BackendResult.unavailable());
+                });
+    }
+}
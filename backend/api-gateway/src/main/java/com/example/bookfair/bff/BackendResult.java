@@ -0,0 +1,36 @@
+package com.example.bookfair.bff;
+
+/**
+ * Outcome of one backend call made by the BFF.
+ * Status is 0 when the backend could not be reached or timed out.
+ */
+public class BackendResult {
+
+    private final int status;
+    private final Object body;
+
+    public BackendResult(int status, Object body) {
+        this.status = status;
+        this.body = body;
+    }
+
+    public static BackendResult unavailable() {
+        return new BackendResult(0, null);
+    }
+
+    public boolean isOk() {
+        return status >= 200 && status < 300;
+    }
+
+    public boolean isClientError() {
+        return status >= 400 && status < 500;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Object getBody() {
+        return body;
+    }
+}
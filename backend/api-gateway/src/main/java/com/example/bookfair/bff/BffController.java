@@ -0,0 +1,145 @@
+package com.example.bookfair.bff;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Backend-for-frontend endpoints that combine the calls a page makes on load into one
+ * round trip. The backend calls run in parallel, so the response takes as long as the
+ * slowest of them rather than their sum.
+ *
+ * These are served by the gateway itself, not routed, so global filters do not apply to
+ * them. The backend calls go back through the gateway routes instead (see
+ * {@link BackendClient}), where the caller's token is verified and public data is served
+ * from the shared response cache and request coalescer.
+ *
+ * If an optional part fails it is returned as null and listed under "unavailable";
+ * only a failure of the page's primary data fails the whole response.
+ */
+@RestController
+@RequestMapping("/api/bff")
+public class BffController {
+
+    @Autowired
+    private BackendClient backendClient;
+
+    /**
+     * Home page: the user's profile and reservations
+     */
+    @GetMapping("/home")
+    public Mono<ResponseEntity<Map<String, Object>>> home(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authHeader) {
+        HttpHeaders headers = authenticatedHeaders(authHeader);
+        if (headers == null) {
+            return Mono.just(error(HttpStatus.UNAUTHORIZED, "Invalid or expired token"));
+        }
+
+        return Mono.zip(
+                backendClient.get("/api/user/profile", headers),
+                backendClient.get("/api/reservations/my-reservations", headers)
+        ).map(results -> {
+            BackendResult profile = results.getT1();
+            if (!profile.isOk()) {
+                return primaryFailed(profile, "User service unavailable");
+            }
+
+            Map<String, Object> body = new LinkedHashMap<>();
+            List<String> unavailable = new ArrayList<>();
+            body.put("user", profile.getBody());
+            body.put("reservations", part(results.getT2(), "reservations", unavailable));
+            body.put("unavailable", unavailable);
+            return ResponseEntity.ok(body);
+        });
+    }
+
+    /**
+     * Map page: the map layout and all stalls (public), plus the caller's reservations
+     * when a token is sent
+     */
+    @GetMapping("/map")
+    public Mono<ResponseEntity<Map<String, Object>>> map(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authHeader) {
+        // Public data; the token is not forwarded, so these share cached and coalesced responses
+        HttpHeaders publicHeaders = new HttpHeaders();
+        HttpHeaders userHeaders = authenticatedHeaders(authHeader);
+        Mono<BackendResult> reservations = userHeaders != null
+                ? backendClient.get("/api/reservations/my-reservations", userHeaders)
+                : Mono.just(BackendResult.unavailable());
+
+        return Mono.zip(
+                backendClient.get("/api/reservations/map-layout", publicHeaders),
+                backendClient.get("/api/reservations/all", publicHeaders),
+                reservations
+        ).map(results -> {
+            BackendResult stalls = results.getT2();
+            if (!stalls.isOk()) {
+                return primaryFailed(stalls, "Reservation service unavailable");
+            }
+
+            Map<String, Object> body = new LinkedHashMap<>();
+            List<String> unavailable = new ArrayList<>();
+            body.put("layout", part(results.getT1(), "layout", unavailable));
+            body.put("stalls", stalls.getBody());
+            if (userHeaders != null) {
+                body.put("reservations", part(results.getT3(), "reservations", unavailable));
+            }
+            body.put("unavailable", unavailable);
+            return ResponseEntity.ok(body);
+        });
+    }
+
+    /**
+     * Headers for backend calls made on behalf of the caller, or null without a bearer token.
+     * The token itself is verified by the gateway route the call goes through.
+     */
+    private HttpHeaders authenticatedHeaders(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return null;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.AUTHORIZATION, authHeader);
+        return headers;
+    }
+
+    private Object part(BackendResult result, String name, List<String> unavailable) {
+        if (result.isOk()) {
+            return result.getBody();
+        }
+        unavailable.add(name);
+        return null;
+    }
+
+    /**
+     * Pass through client errors (e.g. 401 for a revoked token), otherwise 502
+     */
+    private ResponseEntity<Map<String, Object>> primaryFailed(BackendResult result, String message) {
+        if (result.isClientError()) {
+            Map<String, Object> body = new LinkedHashMap<>();
+            if (result.getBody() instanceof Map<?, ?> backendBody) {
+                backendBody.forEach((key, value) -> body.put(String.valueOf(key), value));
+            } else {
+                body.put("error", "Request failed");
+            }
+            return ResponseEntity.status(result.getStatus()).body(body);
+        }
+        return error(HttpStatus.BAD_GATEWAY, message);
+    }
+
+    private ResponseEntity<Map<String, Object>> error(HttpStatus status, String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", message);
+        return ResponseEntity.status(status).body(body);
+    }
+}
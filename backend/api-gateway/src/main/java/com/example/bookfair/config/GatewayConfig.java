@@ -1,8 +1,10 @@
 package com.example.bookfair.config;
 
+import com.example.bookfair.ratelimit.InMemoryTokenBucketRateLimiter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
@@ -16,27 +18,61 @@ public class GatewayConfig {
 
     private static final Logger logger = LoggerFactory.getLogger(GatewayConfig.class);
 
-    @Value("${gateway.services.user:http://localhost:8081}")
-    private String userServiceUrl;
+    // Resolved per request by LoadBalancerGlobalFilter from the gateway.instances.* lists
+    private static final String USER_SERVICE = "lb://user-service";
+    private static final String RESERVATION_SERVICE = "lb://reservation-service";
+    private static final String EMAIL_SERVICE = "lb://email-service";
+    private static final String EMPLOYEE_SERVICE = "lb://employee-service";
 
-    @Value("${gateway.services.reservation:http://localhost:8082}")
-    private String reservationServiceUrl;
+    // Login is BCrypt-heavy; keyed by client IP since callers are not authenticated yet
+    @Value("${gateway.rate-limit.login.capacity:20}")
+    private int loginCapacity;
 
-    @Value("${gateway.services.email:http://localhost:8083}")
-    private String emailServiceUrl;
+    @Value("${gateway.rate-limit.login.refill-per-second:2}")
+    private double loginRefillPerSecond;
 
-    @Value("${gateway.services.employee:http://localhost:8084}")
-    private String employeeServiceUrl;
+    // Reserve is keyed by user
+    @Value("${gateway.rate-limit.reserve.capacity:5}")
+    private int reserveCapacity;
+
+    @Value("${gateway.rate-limit.reserve.refill-per-second:1}")
+    private double reserveRefillPerSecond;
 
     @Bean
-    public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
-        logger.info("Configuring API Gateway routes:");
-        logger.info("  - User Service: {}", userServiceUrl);
-        logger.info("  - Reservation Service: {}", reservationServiceUrl);
-        logger.info("  - Email Service: {}", emailServiceUrl);
-        logger.info("  - Employee Service: {}", employeeServiceUrl);
+    public RouteLocator customRouteLocator(RouteLocatorBuilder builder,
+                                           InMemoryTokenBucketRateLimiter rateLimiter,
+                                           KeyResolver keyResolver) {
+        logger.info("Configuring API Gateway routes for user, reservation, email and employee services");
+
+        rateLimiter.configure("auth-login", loginCapacity, loginRefillPerSecond);
+        rateLimiter.configure("reservation-reserve", reserveCapacity, reserveRefillPerSecond);
 
         return builder.routes()
+                // Rate-limited routes; order -1 so they match before the general service routes
+                // Denied requests get 429 with a Retry-After header
+                .route("auth-login", r -> r
+                        .order(-1)
+                        .path("/api/auth/login")
+                        .filters(f -> f
+                                .preserveHostHeader()
+                                .requestRateLimiter(c -> c.setRateLimiter(rateLimiter).setKeyResolver(keyResolver))
+                                .dedupeResponseHeader("Access-Control-Allow-Origin", "RETAIN_FIRST")
+                                .dedupeResponseHeader("Access-Control-Allow-Methods", "RETAIN_FIRST")
+                                .dedupeResponseHeader("Access-Control-Allow-Headers", "RETAIN_FIRST")
+                                .dedupeResponseHeader("Access-Control-Allow-Credentials", "RETAIN_FIRST")
+                        )
+                        .uri(USER_SERVICE)
+                )
+                .route("reservation-reserve", r -> r
+                        .order(-1)
+                        .path("/api/reservations/reserve")
+                        .filters(f -> f
+                                .preserveHostHeader()
+                                .requestRateLimiter(c -> c.setRateLimiter(rateLimiter).setKeyResolver(keyResolver))
+                                .dedupeResponseHeader("Access-Control-Allow-Origin", "RETAIN_FIRST")
+                        )
+                        .uri(RESERVATION_SERVICE)
+                )
                 // User Service routes (authentication and user management)
                 .route("user-service", r -> r
                         .path("/api/auth/**", "/api/user/**", "/api/admin/users/**", "/api/admin/stats")
@@ -48,7 +84,7 @@ public class GatewayConfig {
                                 .dedupeResponseHeader("Access-Control-Allow-Credentials", "RETAIN_FIRST")
                                 // Authorization header is forwarded by default in Spring Cloud Gateway
                         )
-                        .uri(userServiceUrl)
+                        .uri(USER_SERVICE)
                 )
                 // Reservation Service routes (reservations, stalls, map layouts)
                 .route("reservation-service", r -> r
@@ -58,7 +94,7 @@ public class GatewayConfig {
                                 .dedupeResponseHeader("Access-Control-Allow-Origin", "RETAIN_FIRST")
                                 // Authorization header is forwarded by default in Spring Cloud Gateway
                         )
-                        .uri(reservationServiceUrl)
+                        .uri(RESERVATION_SERVICE)
                 )
                 // Email Service routes
                 .route("email-service", r -> r
@@ -67,7 +103,7 @@ public class GatewayConfig {
                                 .preserveHostHeader()
                                 .dedupeResponseHeader("Access-Control-Allow-Origin", "RETAIN_FIRST")
                         )
-                        .uri(emailServiceUrl)
+                        .uri(EMAIL_SERVICE)
                 )
                 // Employee Service routes
                 .route("employee-service", r -> r
@@ -76,7 +112,7 @@ public class GatewayConfig {
                                 .preserveHostHeader()
                                 .dedupeResponseHeader("Access-Control-Allow-Origin", "RETAIN_FIRST")
                         )
-                        .uri(employeeServiceUrl)
+                        .uri(EMPLOYEE_SERVICE)
                 )
                 .build();
     }
@@ -0,0 +1,64 @@
+package com.example.bookfair.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.HttpProtocol;
+
+/**
+ * Reactor Netty server and backend client settings.
+ * Compression, HTTP/2 and the backend connection pool are configured through the
+ * server.* and spring.cloud.gateway.httpclient.* properties; this class adds transport
+ * metrics and the optional h2c protocol to backends.
+ */
+@Configuration
+public class HttpServerConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpServerConfig.class);
+
+    // Backends must have HTTP/2 cleartext enabled (server.http2.enabled=true) before turning this on
+    @Value("${gateway.httpclient.h2c.enabled:false}")
+    private boolean backendH2c;
+
+    /**
+     * Server transport metrics (reactor.netty.http.server.*): wire bytes sent and received
+     * after compression, connection counts and response times
+     */
+    @Bean
+    public NettyServerCustomizer nettyServerMetricsCustomizer() {
+        return httpServer -> httpServer.metrics(true, HttpServerConfig::uriTag);
+    }
+
+    /**
+     * Backend client transport metrics (reactor.netty.http.client.*) and optional h2c
+     */
+    @Bean
+    public HttpClientCustomizer backendHttpClientCustomizer() {
+        if (backendH2c) {
+            logger.info("Using HTTP/2 cleartext (h2c) with HTTP/1.1 fallback for backend connections");
+        }
+        return httpClient -> {
+            httpClient = httpClient.metrics(true, HttpServerConfig::uriTag);
+            return backendH2c ? httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11) : httpClient;
+        };
+    }
+
+    /**
+     * Collapse URIs to their first two segments ("/api/reservations/12" -> "/api/reservations")
+     * to keep metric tag cardinality bounded
+     */
+    static String uriTag(String uri) {
+        int query = uri.indexOf('?');
+        String path = query >= 0 ? uri.substring(0, query) : uri;
+        int first = path.indexOf('/', 1);
+        if (first < 0) {
+            return path;
+        }
+        int second = path.indexOf('/', first + 1);
+        return second < 0 ? path : path.substring(0, second);
+    }
+}
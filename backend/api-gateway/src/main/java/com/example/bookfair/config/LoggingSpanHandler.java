@@ -0,0 +1,36 @@
+package com.example.bookfair.config;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes every finished span to the log, so traces can be followed without a collector.
+ * Off by default (one INFO line per span is costly at full sampling); enable with
+ * tracing.span-log.enabled=true.
+ * Spans of one request share a traceId across services; grep for it in the service logs
+ * (or route this logger to a file) to see the critical path.
+ */
+@Component
+public class LoggingSpanHandler extends SpanHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingSpanHandler.class);
+
+    @Value("${tracing.span-log.enabled:false}")
+    private boolean enabled;
+
+    @Override
+    public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+        if (enabled && cause != Cause.ABANDONED && logger.isInfoEnabled()) {
+            long durationMicros = span.finishTimestamp() - span.startTimestamp();
+            logger.info("span traceId={} spanId={} parentId={} service={} name={} kind={} durationMs={} remote={} error={} tags={}",
+                    span.traceId(), span.id(), span.parentId(), span.localServiceName(), span.name(), span.kind(),
+                    durationMicros / 1000.0, span.remoteServiceName(), span.error() != null, span.tags());
+        }
+        return true;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.bookfair.config;
+
+import com.example.bookfair.security.IdentityHeaders;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Rate limiting configuration for the gateway
+ */
+@Configuration
+public class RateLimitConfig {
+
+    /**
+     * Rate-limit key: the authenticated user (from the identity header set after JWT
+     * verification), otherwise the client IP address
+     */
+    @Bean
+    public KeyResolver userOrIpKeyResolver() {
+        return exchange -> {
+            String email = exchange.getRequest().getHeaders().getFirst(IdentityHeaders.EMAIL);
+            if (email != null && !email.isEmpty()) {
+                return Mono.just("user:" + email);
+            }
+            InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+            String ip = remoteAddress != null && remoteAddress.getAddress() != null
+                    ? remoteAddress.getAddress().getHostAddress()
+                    : "unknown";
+            return Mono.just("ip:" + ip);
+        };
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.bookfair.filter;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Immutable copy of an upstream response that can be replayed to other clients
+ */
+public final class CachedResponse {
+
+    private final HttpStatusCode status;
+    private final MediaType contentType;
+    private final String etag;
+    private final byte[] body;
+    private final long expiresAt;
+
+    public CachedResponse(HttpStatusCode status, MediaType contentType, String etag, byte[] body, long expiresAt) {
+        this.status = status;
+        this.contentType = contentType;
+        this.etag = etag;
+        this.body = body;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Strong ETag derived from the body, for upstream responses that do not send one
+     */
+    public static String etagOf(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public boolean isFresh(long now) {
+        return expiresAt > now;
+    }
+
+    /**
+     * Whether an If-None-Match header value matches this response's ETag
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(etag) || value.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Write this response to the client, or a bodiless 304 if notModified is true
+     */
+    public Mono<Void> writeTo(ServerHttpResponse response, boolean notModified, String cacheStatus) {
+        HttpHeaders headers = response.getHeaders();
+        if (etag != null) {
+            headers.setETag(etag);
+        }
+        headers.set("X-Cache", cacheStatus);
+        if (notModified) {
+            response.setStatusCode(HttpStatusCode.valueOf(304));
+            return response.setComplete();
+        }
+        response.setStatusCode(status);
+        if (contentType != null) {
+            headers.setContentType(contentType);
+        }
+        headers.setContentLength(body.length);
+        DataBuffer buffer = response.bufferFactory().wrap(body);
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    public HttpStatusCode getStatus() {
+        return status;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public int size() {
+        return body.length;
+    }
+}
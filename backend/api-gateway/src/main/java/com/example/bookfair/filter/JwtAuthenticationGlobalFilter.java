@@ -0,0 +1,104 @@
+package com.example.bookfair.filter;
+
+import com.example.bookfair.security.IdentityHeaders;
+import com.example.bookfair.security.JwtVerifier;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Verifies the bearer token once at the edge.
+ * Valid tokens are turned into signed identity headers (see {@link IdentityHeaders}) that the
+ * backend services trust without verifying the JWT again. Invalid or expired tokens are
+ * rejected with 401 before reaching a backend, except on public paths, where the request
+ * is forwarded anonymously (the frontend sends its stored token on every call, login included).
+ */
+@Component
+public class JwtAuthenticationGlobalFilter implements GlobalFilter, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationGlobalFilter.class);
+
+    // Runs before routing-related filters so rejected requests do no further work
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 100;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Autowired
+    private JwtVerifier jwtVerifier;
+
+    @Autowired
+    private IdentityHeaders identityHeaders;
+
+    @Value("${gateway.auth.public-paths:/api/auth/**,/api/employee/login}")
+    private List<String> publicPaths;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+        // Never let clients supply identity headers themselves
+        ServerHttpRequest.Builder forwarded = request.mutate()
+                .headers(headers -> IdentityHeaders.ALL.forEach(headers::remove));
+
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return chain.filter(exchange.mutate().request(forwarded.build()).build());
+        }
+
+        String path = request.getPath().value();
+        Claims claims;
+        try {
+            claims = jwtVerifier.verify(authHeader.substring(7));
+        } catch (Exception e) {
+            if (isPublic(path)) {
+                logger.debug("Ignoring invalid JWT on public path {}: {}", path, e.getMessage());
+                return chain.filter(exchange.mutate().request(forwarded.build()).build());
+            }
+            logger.debug("Rejected invalid JWT on path {}: {}", path, e.getMessage());
+            return unauthorized(exchange.getResponse());
+        }
+
+        forwarded.headers(headers -> identityHeaders.apply(headers, claims));
+        return chain.filter(exchange.mutate().request(forwarded.build()).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private boolean isPublic(String path) {
+        for (String pattern : publicPaths) {
+            if (pathMatcher.match(pattern.trim(), path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Mono<Void> unauthorized(ServerHttpResponse response) {
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] body = "{\"error\":\"Invalid or expired token\"}".getBytes(StandardCharsets.UTF_8);
+        DataBuffer buffer = response.bufferFactory().wrap(body);
+        return response.writeWith(Mono.just(buffer));
+    }
+}
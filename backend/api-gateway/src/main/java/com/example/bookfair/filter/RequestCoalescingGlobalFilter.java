@@ -0,0 +1,129 @@
+package com.example.bookfair.filter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collapses concurrent identical GET requests into a single upstream call (single-flight).
+ * The first request for a path and query goes upstream; requests arriving while it is in
+ * flight wait for its response and receive a copy. Only configure paths whose response
+ * does not depend on the caller. Runs after {@link ResponseCacheGlobalFilter}, so together
+ * they turn a refresh storm into one upstream call per TTL.
+ */
+@Component
+public class RequestCoalescingGlobalFilter implements GlobalFilter, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestCoalescingGlobalFilter.class);
+
+    public static final int ORDER = ResponseCacheGlobalFilter.ORDER + 10;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final Map<String, Sinks.One<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder upstreamCalls = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    @Value("${gateway.coalesce.paths:/api/reservations/available,/api/reservations/all,/api/reservations/map-layout}")
+    private List<String> coalescedPaths;
+
+    // Waiters fall back to their own upstream call if the shared one takes longer than this
+    @Value("${gateway.coalesce.wait-timeout-ms:5000}")
+    private long waitTimeoutMs;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getMethod() != HttpMethod.GET || !matchesAny(request.getPath().value())) {
+            return chain.filter(exchange);
+        }
+
+        String key = requestKey(request);
+        Sinks.One<CachedResponse> sink = Sinks.one();
+        Sinks.One<CachedResponse> existing = inFlight.putIfAbsent(key, sink);
+
+        if (existing != null) {
+            coalesced.increment();
+            String ifNoneMatch = request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+            return existing.asMono()
+                    .timeout(Duration.ofMillis(waitTimeoutMs))
+                    .flatMap(shared -> shared.writeTo(exchange.getResponse(), shared.matches(ifNoneMatch), "COALESCED"))
+                    .onErrorResume(e -> {
+                        logger.debug("Coalesced request for {} falling back to upstream: {}", key, e.toString());
+                        return chain.filter(exchange);
+                    });
+        }
+
+        upstreamCalls.increment();
+        // Waiters may hold different validators, so the shared call always fetches a full body
+        ServerHttpRequest upstreamRequest = request.mutate()
+                .headers(headers -> headers.remove(HttpHeaders.IF_NONE_MATCH))
+                .build();
+        ServerHttpResponse response = exchange.getResponse();
+        BodyCaptureResponseDecorator decorated = new BodyCaptureResponseDecorator(response, body -> {
+            HttpHeaders headers = response.getHeaders();
+            CachedResponse shared = new CachedResponse(response.getStatusCode(), headers.getContentType(),
+                    headers.getETag(), body, 0);
+            inFlight.remove(key, sink);
+            sink.tryEmitValue(shared);
+        });
+
+        return chain.filter(exchange.mutate().request(upstreamRequest).response(decorated).build())
+                .doFinally(signal -> {
+                    // No body was produced (error, cancel, empty response): let waiters go upstream themselves
+                    if (inFlight.remove(key, sink)) {
+                        sink.tryEmitError(new IllegalStateException("Shared upstream call ended without a body: " + signal));
+                    }
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    public long getUpstreamCalls() {
+        return upstreamCalls.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    private boolean matchesAny(String path) {
+        for (String pattern : coalescedPaths) {
+            if (pathMatcher.match(pattern.trim(), path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String requestKey(ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        return query != null ? request.getPath().value() + "?" + query : request.getPath().value();
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.bookfair.filter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Short-lived in-memory cache for public GET endpoints whose response is the same for
+ * every visitor (stall listings, map layout).
+ * Fresh entries are served without contacting the backend, and conditional requests
+ * (If-None-Match) are answered with 304 locally. The upstream ETag is kept when present,
+ * otherwise one is derived from the body. Any non-GET request on a reservation route
+ * clears the cache once it completes, so writes made through the gateway are visible
+ * immediately; the TTL bounds staleness for everything else.
+ */
+@Component
+public class ResponseCacheGlobalFilter implements GlobalFilter, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCacheGlobalFilter.class);
+
+    // After authentication, and before NettyWriteResponseFilter (-1) so the response can be decorated
+    public static final int ORDER = JwtAuthenticationGlobalFilter.ORDER + 100;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final Map<String, CachedResponse> cache = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+
+    @Value("${gateway.cache.paths:/api/reservations/available,/api/reservations/all,/api/reservations/map-layout}")
+    private List<String> cachedPaths;
+
+    @Value("${gateway.cache.invalidate-paths:/api/reservations/**,/api/admin/**}")
+    private List<String> invalidatePaths;
+
+    @Value("${gateway.cache.ttl-ms:2000}")
+    private long ttlMs;
+
+    @Value("${gateway.cache.max-entries:256}")
+    private int maxEntries;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().value();
+
+        if (request.getMethod() != HttpMethod.GET) {
+            if (request.getMethod() != HttpMethod.OPTIONS && matchesAny(invalidatePaths, path)) {
+                return chain.filter(exchange).doFinally(signal -> invalidate());
+            }
+            return chain.filter(exchange);
+        }
+        if (!matchesAny(cachedPaths, path)) {
+            return chain.filter(exchange);
+        }
+
+        String key = cacheKey(request);
+        String ifNoneMatch = request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+        long now = System.currentTimeMillis();
+
+        CachedResponse cached = cache.get(key);
+        if (cached != null && cached.isFresh(now)) {
+            hits.increment();
+            boolean unchanged = cached.matches(ifNoneMatch);
+            if (unchanged) {
+                notModified.increment();
+            }
+            return cached.writeTo(exchange.getResponse(), unchanged, "HIT");
+        }
+
+        misses.increment();
+        // Always fetch a full body from upstream so it can be cached
+        ServerHttpRequest upstreamRequest = request.mutate()
+                .headers(headers -> headers.remove(HttpHeaders.IF_NONE_MATCH))
+                .build();
+        ServerHttpResponse response = exchange.getResponse();
+        BodyCaptureResponseDecorator decorated = new BodyCaptureResponseDecorator(response,
+                body -> store(key, response, body));
+        return chain.filter(exchange.mutate().request(upstreamRequest).response(decorated).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getNotModified() {
+        return notModified.sum();
+    }
+
+    public int getSize() {
+        return cache.size();
+    }
+
+    public void invalidate() {
+        if (!cache.isEmpty()) {
+            cache.clear();
+            logger.debug("Response cache invalidated");
+        }
+    }
+
+    private void store(String key, ServerHttpResponse response, byte[] body) {
+        if (response.getStatusCode() == null || response.getStatusCode().value() != HttpStatus.OK.value()) {
+            return;
+        }
+        HttpHeaders headers = response.getHeaders();
+        String etag = headers.getETag() != null ? headers.getETag() : CachedResponse.etagOf(body);
+        headers.setETag(etag);
+        headers.set("X-Cache", "MISS");
+
+        long now = System.currentTimeMillis();
+        if (cache.size() >= maxEntries) {
+            cache.values().removeIf(entry -> !entry.isFresh(now));
+            if (cache.size() >= maxEntries) {
+                return;
+            }
+        }
+        cache.put(key, new CachedResponse(response.getStatusCode(), headers.getContentType(), etag, body, now + ttlMs));
+    }
+
+    private boolean matchesAny(List<String> patterns, String path) {
+        for (String pattern : patterns) {
+            if (pathMatcher.match(pattern.trim(), path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String cacheKey(ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        return query != null ? request.getPath().value() + "?" + query : request.getPath().value();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.bookfair.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Counts response body bytes before compression, per route, as
+ * gateway.response.uncompressed.bytes. Compared with reactor.netty.http.server.data.sent
+ * (bytes on the wire after compression) this gives the bytes saved by compression.
+ * Buffers are counted as they stream through; nothing is copied or held.
+ */
+@Component
+public class ResponseSizeGlobalFilter implements GlobalFilter, Ordered {
+
+    // Outermost response decorator, so cache hits and coalesced responses are counted too
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpResponseDecorator counting = new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                Counter counter = counterFor(exchange);
+                return super.writeWith(Flux.from(body).doOnNext(buffer -> counter.increment(buffer.readableByteCount())));
+            }
+
+            @Override
+            public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+                Counter counter = counterFor(exchange);
+                return super.writeAndFlushWith(Flux.from(body).map(part ->
+                        Flux.from(part).doOnNext(buffer -> counter.increment(buffer.readableByteCount()))));
+            }
+        };
+        return chain.filter(exchange.mutate().response(counting).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private Counter counterFor(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return Counter.builder("gateway.response.uncompressed.bytes")
+                .description("Response body bytes before compression")
+                .baseUnit("bytes")
+                .tag("route", route != null ? route.getId() : "none")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.bookfair.loadbalancer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.addOriginalRequestUrl;
+
+/**
+ * Resolves lb://service-id route URIs to a concrete instance from {@link StaticServiceRegistry}.
+ * Runs at the same position as Spring Cloud's load balancer filter: after the request URL
+ * is built from the route, before the Netty routing filter sends it.
+ *
+ * A request counts as outstanding until the whole response has been relayed to the client
+ * (the filter chain completes, errors or is cancelled); 5xx responses and connection errors
+ * count as failures for outlier ejection.
+ */
+@Component
+public class LoadBalancerGlobalFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = 10150;
+
+    @Autowired
+    private StaticServiceRegistry registry;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        URI url = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        if (url == null || !"lb".equals(url.getScheme())) {
+            return chain.filter(exchange);
+        }
+
+        ServiceInstance instance = registry.choose(url.getHost());
+        if (instance == null) {
+            return Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "No instances configured for " + url.getHost()));
+        }
+
+        URI target = UriComponentsBuilder.fromUri(url)
+                .scheme(instance.getUri().getScheme())
+                .host(instance.getUri().getHost())
+                .port(instance.getUri().getPort())
+                .build(true)
+                .toUri();
+        addOriginalRequestUrl(exchange, url);
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, target);
+
+        registry.requestStarted(instance);
+        AtomicBoolean failed = new AtomicBoolean();
+        return chain.filter(exchange)
+                .doOnError(e -> failed.set(true))
+                .doFinally(signal -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    boolean serverError = status != null && status.is5xxServerError();
+                    registry.requestFinished(instance, failed.get() || serverError);
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
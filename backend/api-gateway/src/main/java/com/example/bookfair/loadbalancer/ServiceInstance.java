@@ -0,0 +1,82 @@
+package com.example.bookfair.loadbalancer;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One backend instance with its live balancing state
+ */
+public class ServiceInstance {
+
+    private final String serviceId;
+    private final URI uri;
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    // Set by the active health checker
+    private volatile boolean healthy = true;
+    // Set by outlier ejection; epoch millis until which the instance receives no traffic
+    private volatile long ejectedUntil;
+
+    public ServiceInstance(String serviceId, URI uri) {
+        this.serviceId = serviceId;
+        this.uri = uri;
+    }
+
+    public String getServiceId() {
+        return serviceId;
+    }
+
+    public URI getUri() {
+        return uri;
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    public boolean isEjected(long now) {
+        return ejectedUntil > now;
+    }
+
+    public boolean isAvailable(long now) {
+        return healthy && !isEjected(now);
+    }
+
+    void setHealthy(boolean healthy) {
+        this.healthy = healthy;
+    }
+
+    void requestStarted() {
+        outstanding.incrementAndGet();
+    }
+
+    void requestFinished() {
+        outstanding.decrementAndGet();
+    }
+
+    void recordSuccess() {
+        consecutiveFailures.set(0);
+    }
+
+    /**
+     * Record a failed request and return the number of consecutive failures
+     */
+    int recordFailure() {
+        return consecutiveFailures.incrementAndGet();
+    }
+
+    void eject(long until) {
+        ejectedUntil = until;
+        consecutiveFailures.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return serviceId + "@" + uri;
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.bookfair.loadbalancer;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Statically configured backend instances per service, with least-outstanding-requests
+ * selection, active health checks and outlier ejection.
+ *
+ * An instance receives traffic while its last health check succeeded and it is not ejected.
+ * It is ejected for a while after too many consecutive failed requests (5xx or connection
+ * errors), but never if that would leave the service without an available instance.
+ */
+@Component
+public class StaticServiceRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(StaticServiceRegistry.class);
+
+    @Value("${gateway.instances.user:${gateway.services.user:http://localhost:8081}}")
+    private List<String> userInstances;
+
+    @Value("${gateway.instances.reservation:${gateway.services.reservation:http://localhost:8082}}")
+    private List<String> reservationInstances;
+
+    @Value("${gateway.instances.email:${gateway.services.email:http://localhost:8083}}")
+    private List<String> emailInstances;
+
+    @Value("${gateway.instances.employee:${gateway.services.employee:http://localhost:8084}}")
+    private List<String> employeeInstances;
+
+    // Any HTTP response below 500 counts as healthy, so services without actuator still pass
+    @Value("${gateway.health-check.path:/actuator/health}")
+    private String healthCheckPath;
+
+    @Value("${gateway.health-check.interval-ms:5000}")
+    private long healthCheckIntervalMs;
+
+    @Value("${gateway.health-check.timeout-ms:1000}")
+    private long healthCheckTimeoutMs;
+
+    @Value("${gateway.outlier.consecutive-failures:5}")
+    private int ejectAfterFailures;
+
+    @Value("${gateway.outlier.ejection-ms:30000}")
+    private long ejectionMs;
+
+    private final Map<String, List<ServiceInstance>> instancesByService = new LinkedHashMap<>();
+
+    private final WebClient healthClient = WebClient.create();
+    private Disposable healthChecks;
+
+    @PostConstruct
+    void init() {
+        register("user-service", userInstances);
+        register("reservation-service", reservationInstances);
+        register("email-service", emailInstances);
+        register("employee-service", employeeInstances);
+
+        healthChecks = Flux.interval(Duration.ofMillis(healthCheckIntervalMs))
+                .flatMap(tick -> Flux.fromIterable(allInstances()).flatMap(this::checkHealth))
+                .subscribe();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (healthChecks != null) {
+            healthChecks.dispose();
+        }
+    }
+
+    /**
+     * Pick the available instance with the fewest requests in flight (random among ties).
+     * Falls back to all instances if none is available, rather than failing every request.
+     */
+    public ServiceInstance choose(String serviceId) {
+        List<ServiceInstance> instances = instancesByService.get(serviceId);
+        if (instances == null || instances.isEmpty()) {
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        ServiceInstance chosen = pickLeastOutstanding(instances, now, true);
+        return chosen != null ? chosen : pickLeastOutstanding(instances, now, false);
+    }
+
+    public List<ServiceInstance> getInstances(String serviceId) {
+        return instancesByService.getOrDefault(serviceId, Collections.emptyList());
+    }
+
+    public Map<String, List<ServiceInstance>> getAllInstances() {
+        return Collections.unmodifiableMap(instancesByService);
+    }
+
+    void requestStarted(ServiceInstance instance) {
+        instance.requestStarted();
+    }
+
+    void requestFinished(ServiceInstance instance, boolean failed) {
+        instance.requestFinished();
+        if (!failed) {
+            instance.recordSuccess();
+            return;
+        }
+        if (instance.recordFailure() >= ejectAfterFailures && canEject(instance)) {
+            instance.eject(System.currentTimeMillis() + ejectionMs);
+            logger.warn("Ejected {} for {} ms after {} consecutive failures", instance, ejectionMs, ejectAfterFailures);
+        }
+    }
+
+    private ServiceInstance pickLeastOutstanding(List<ServiceInstance> instances, long now, boolean availableOnly) {
+        ServiceInstance best = null;
+        int ties = 0;
+        for (ServiceInstance instance : instances) {
+            if (availableOnly && !instance.isAvailable(now)) {
+                continue;
+            }
+            if (best == null || instance.getOutstanding() < best.getOutstanding()) {
+                best = instance;
+                ties = 1;
+            } else if (instance.getOutstanding() == best.getOutstanding()
+                    && ThreadLocalRandom.current().nextInt(++ties) == 0) {
+                // Reservoir sampling keeps the choice uniform among equally loaded instances
+                best = instance;
+            }
+        }
+        return best;
+    }
+
+    private boolean canEject(ServiceInstance instance) {
+        long now = System.currentTimeMillis();
+        for (ServiceInstance other : getInstances(instance.getServiceId())) {
+            if (other != instance && other.isAvailable(now)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Mono<Void> checkHealth(ServiceInstance instance) {
+        return healthClient.get()
+                .uri(instance.getUri().resolve(healthCheckPath))
+                .exchangeToMono(response -> response.releaseBody().thenReturn(!response.statusCode().is5xxServerError()))
+                .timeout(Duration.ofMillis(healthCheckTimeoutMs))
+                .onErrorReturn(false)
+                .doOnNext(healthy -> {
+                    if (healthy != instance.isHealthy()) {
+                        logger.warn("Instance {} is now {}", instance, healthy ? "healthy" : "unhealthy");
+                    }
+                    instance.setHealthy(healthy);
+                })
+                .then();
+    }
+
+    private void register(String serviceId, List<String> urls) {
+        List<ServiceInstance> instances = new ArrayList<>();
+        for (String url : urls) {
+            if (!url.isBlank()) {
+                instances.add(new ServiceInstance(serviceId, URI.create(url.trim())));
+            }
+        }
+        instancesByService.put(serviceId, Collections.unmodifiableList(instances));
+        logger.info("Load balancing {} across {}", serviceId, instances.stream().map(i -> i.getUri().toString()).toList());
+    }
+
+    private List<ServiceInstance> allInstances() {
+        List<ServiceInstance> all = new ArrayList<>();
+        instancesByService.values().forEach(all::addAll);
+        return all;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.bookfair.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Actuator endpoint (/actuator/routelatency) summarizing gateway and upstream latency per
+ * route and status in milliseconds, plus in-flight requests per route.
+ * Percentiles cover the last distribution window (one minute by default); the full
+ * histograms are available for scraping at /actuator/prometheus.
+ */
+@Component
+@Endpoint(id = "routelatency")
+public class RouteLatencyEndpoint {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @ReadOperation
+    public Map<String, Object> routeLatency() {
+        Map<String, Object> inFlight = new TreeMap<>();
+        for (Gauge gauge : meterRegistry.find(RouteMetricsGlobalFilter.IN_FLIGHT).gauges()) {
+            inFlight.put(gauge.getId().getTag("route"), (long) gauge.value());
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("gateway", summarize(RouteMetricsGlobalFilter.LATENCY, false));
+        result.put("upstream", summarize(UpstreamTimingGlobalFilter.LATENCY, true));
+        result.put("inFlight", inFlight);
+        return result;
+    }
+
+    /**
+     * Group timers as route -> status (-> instance) -> statistics
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> summarize(String timerName, boolean byInstance) {
+        Map<String, Object> byRoute = new TreeMap<>();
+        for (Timer timer : meterRegistry.find(timerName).timers()) {
+            Map<String, Object> byStatus = (Map<String, Object>) byRoute
+                    .computeIfAbsent(timer.getId().getTag("route"), k -> new TreeMap<>());
+            String status = timer.getId().getTag("status");
+            if (byInstance) {
+                Map<String, Object> instances = (Map<String, Object>) byStatus
+                        .computeIfAbsent(status, k -> new TreeMap<>());
+                instances.put(timer.getId().getTag("instance"), statistics(timer));
+            } else {
+                byStatus.put(status, statistics(timer));
+            }
+        }
+        return byRoute;
+    }
+
+    private Map<String, Object> statistics(Timer timer) {
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("count", snapshot.count());
+        stats.put("mean", round(snapshot.mean(TimeUnit.MILLISECONDS)));
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            stats.put(label(percentile.percentile()), round(percentile.value(TimeUnit.MILLISECONDS)));
+        }
+        stats.put("max", round(snapshot.max(TimeUnit.MILLISECONDS)));
+        return stats;
+    }
+
+    // 0.5 -> p50, 0.99 -> p99, 0.999 -> p999
+    private static String label(double percentile) {
+        return "p" + BigDecimal.valueOf(percentile * 100).stripTrailingZeros().toPlainString().replace(".", "");
+    }
+
+    private static double round(double millis) {
+        return Math.round(millis * 100) / 100.0;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.bookfair.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Records end-to-end gateway latency per route and status as gateway.route.latency, with
+ * p50/p99/p999 and a percentile histogram, and the number of requests in flight per route
+ * as gateway.route.in-flight.
+ *
+ * Runs just inside {@link com.example.bookfair.filter.ResponseSizeGlobalFilter}, so cache hits,
+ * coalesced requests and rejections (401, 429) are measured too. Time spent waiting on the
+ * backend is recorded separately by {@link UpstreamTimingGlobalFilter}.
+ */
+@Component
+public class RouteMetricsGlobalFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 1;
+
+    static final String LATENCY = "gateway.route.latency";
+    static final String IN_FLIGHT = "gateway.route.in-flight";
+
+    // Same range as the backend response timeout
+    static final Duration MIN_EXPECTED = Duration.ofMillis(1);
+    static final Duration MAX_EXPECTED = Duration.ofSeconds(30);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, AtomicInteger> inFlightByRoute = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        String routeId = routeId(exchange);
+        AtomicInteger inFlight = inFlightByRoute.computeIfAbsent(routeId, this::registerInFlightGauge);
+        inFlight.incrementAndGet();
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    inFlight.decrementAndGet();
+                    sample.stop(latencyTimer(routeId, status(exchange, signal)));
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : "none";
+    }
+
+    /**
+     * Response status, or CANCELLED when the client went away before the response completed
+     */
+    static String status(ServerWebExchange exchange, SignalType signal) {
+        if (signal == SignalType.CANCEL) {
+            return "CANCELLED";
+        }
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        if (status == null) {
+            return signal == SignalType.ON_ERROR ? "500" : "200";
+        }
+        return Integer.toString(status.value());
+    }
+
+    private Timer latencyTimer(String routeId, String status) {
+        return Timer.builder(LATENCY)
+                .description("Gateway request latency, end to end")
+                .tag("route", routeId)
+                .tag("status", status)
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED)
+                .register(meterRegistry);
+    }
+
+    private AtomicInteger registerInFlightGauge(String routeId) {
+        AtomicInteger inFlight = new AtomicInteger();
+        Gauge.builder(IN_FLIGHT, inFlight, AtomicInteger::get)
+                .description("Requests currently being handled by the gateway")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        return inFlight;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.bookfair.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+
+/**
+ * Records the time from sending a request to a backend until its response headers arrive
+ * (connection acquire/connect included) as gateway.upstream.latency, per route, status and
+ * instance. Sits directly before the Netty routing filter, after load balancing.
+ *
+ * Connect time alone is in reactor.netty.http.client.connect.time, tagged by remote address.
+ */
+@Component
+public class UpstreamTimingGlobalFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = NettyRoutingFilter.ORDER - 1;
+
+    static final String LATENCY = "gateway.upstream.latency";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        // The routing filter completes once response headers are received; the body is
+        // written afterwards by the write-response filter further out
+        return chain.filter(exchange)
+                .doFinally(signal -> sample.stop(Timer.builder(LATENCY)
+                        .description("Time until backend response headers are received")
+                        .tag("route", RouteMetricsGlobalFilter.routeId(exchange))
+                        .tag("status", RouteMetricsGlobalFilter.status(exchange, signal))
+                        .tag("instance", instance(exchange))
+                        .publishPercentiles(0.5, 0.99, 0.999)
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(RouteMetricsGlobalFilter.MIN_EXPECTED)
+                        .maximumExpectedValue(RouteMetricsGlobalFilter.MAX_EXPECTED)
+                        .register(meterRegistry)));
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private String instance(ServerWebExchange exchange) {
+        URI url = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        return url != null ? url.getHost() + ":" + url.getPort() : "none";
+    }
+}
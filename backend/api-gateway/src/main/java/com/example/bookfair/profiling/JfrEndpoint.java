@@ -0,0 +1,200 @@
+package com.example.bookfair.profiling;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Java Flight Recorder actuator endpoint (admin only).
+ *
+ * GET /actuator/jfr?profile=profile&durationSeconds=30 records for the given time and
+ * returns the .jfr file. profile is a built-in JFR configuration: "default" (about 1%
+ * overhead) or "profile" (more detail, about 2%).
+ *
+ * GET /actuator/jfr/continuous dumps the continuous recording, a low-overhead ring buffer
+ * of the last jfr.continuous.max-age-minutes that runs from startup.
+ *
+ * Open the files with JDK Mission Control or "jfr print".
+ */
+@Component
+@Endpoint(id = "jfr")
+public class JfrEndpoint {
+
+    private static final Logger logger = LoggerFactory.getLogger(JfrEndpoint.class);
+
+    private static final String CONTINUOUS = "continuous";
+
+    @Value("${jfr.max-duration-seconds:300}")
+    private int maxDurationSeconds;
+
+    @Value("${jfr.continuous.enabled:true}")
+    private boolean continuousEnabled;
+
+    @Value("${jfr.continuous.max-age-minutes:30}")
+    private long continuousMaxAgeMinutes;
+
+    @Value("${jfr.continuous.max-size-mb:100}")
+    private long continuousMaxSizeMb;
+
+    // One on-demand recording at a time
+    private final Semaphore onDemand = new Semaphore(1);
+
+    private Recording continuousRecording;
+
+    @PostConstruct
+    void startContinuousRecording() {
+        if (!continuousEnabled) {
+            return;
+        }
+        try {
+            Recording recording = new Recording(Configuration.getConfiguration("default"));
+            recording.setName(CONTINUOUS);
+            recording.setToDisk(true);
+            recording.setMaxAge(Duration.ofMinutes(continuousMaxAgeMinutes));
+            recording.setMaxSize(continuousMaxSizeMb * 1024 * 1024);
+            recording.start();
+            continuousRecording = recording;
+            logger.info("Continuous JFR recording started - Max age: {} min, Max size: {} MB",
+                    continuousMaxAgeMinutes, continuousMaxSizeMb);
+        } catch (Exception e) {
+            logger.warn("Could not start continuous JFR recording: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void stopContinuousRecording() {
+        if (continuousRecording != null) {
+            continuousRecording.close();
+        }
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> record(@Nullable String profile, @Nullable Integer durationSeconds)
+            throws IOException, InterruptedException {
+        int seconds = durationSeconds != null ? durationSeconds : 30;
+        if (seconds < 1 || seconds > maxDurationSeconds) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(profile != null ? profile : "profile");
+        } catch (Exception e) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+
+        if (!onDemand.tryAcquire()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_TOO_MANY_REQUESTS);
+        }
+        try (Recording recording = new Recording(configuration)) {
+            recording.setName("on-demand");
+            recording.start();
+            logger.info("JFR recording started - Profile: {}, Duration: {}s", configuration.getName(), seconds);
+            Thread.sleep(seconds * 1000L);
+            recording.stop();
+            return new WebEndpointResponse<>(dumpToTemporaryFile(recording), WebEndpointResponse.STATUS_OK);
+        } finally {
+            onDemand.release();
+        }
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> dump(@Selector String recording) throws IOException {
+        if (!CONTINUOUS.equals(recording) || continuousRecording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(dumpToTemporaryFile(continuousRecording), WebEndpointResponse.STATUS_OK);
+    }
+
+    private Resource dumpToTemporaryFile(Recording recording) throws IOException {
+        Path file = Files.createTempFile("recording-", ".jfr");
+        recording.dump(file);
+        logger.info("JFR recording '{}' dumped - Size: {} bytes", recording.getName(), Files.size(file));
+        return new TemporaryFileResource(file);
+    }
+
+    /**
+     * File resource that deletes the file once it has been streamed to the client
+     */
+    private static final class TemporaryFileResource extends FileSystemResource {
+
+        private TemporaryFileResource(Path path) {
+            super(path);
+        }
+
+        // Prevents zero-copy transfer, which would bypass the delete on close
+        @Override
+        public boolean isFile() {
+            return false;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        deleteFile();
+                    }
+                }
+            };
+        }
+
+        @Override
+        public ReadableByteChannel readableChannel() throws IOException {
+            ReadableByteChannel channel = super.readableChannel();
+            return new ReadableByteChannel() {
+                @Override
+                public int read(ByteBuffer dst) throws IOException {
+                    return channel.read(dst);
+                }
+
+                @Override
+                public boolean isOpen() {
+                    return channel.isOpen();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        channel.close();
+                    } finally {
+                        deleteFile();
+                    }
+                }
+            };
+        }
+
+        private void deleteFile() {
+            try {
+                Files.deleteIfExists(getFile().toPath());
+            } catch (IOException e) {
+                logger.warn("Failed to delete JFR file {}: {}", getPath(), e.getMessage());
+            }
+        }
+    }
+}
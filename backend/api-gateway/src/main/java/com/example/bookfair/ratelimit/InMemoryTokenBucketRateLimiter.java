@@ -0,0 +1,139 @@
+package com.example.bookfair.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token-bucket {@link RateLimiter} kept in gateway memory, for use with the built-in
+ * RequestRateLimiter filter without Redis. Each (route, key) pair gets its own bucket;
+ * limits are configured per route ID. Suitable for a single gateway instance.
+ * Buckets live in a size-bounded cache and expire when idle, so many distinct keys cost
+ * amortised O(1) eviction instead of a scan over every bucket.
+ */
+@Component
+public class InMemoryTokenBucketRateLimiter implements RateLimiter<InMemoryTokenBucketRateLimiter.Config> {
+
+    private final Map<String, Config> configs = new ConcurrentHashMap<>();
+    private Cache<String, Bucket> buckets;
+
+    @Value("${gateway.rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    // A bucket untouched this long has refilled, so dropping it loses nothing
+    @Value("${gateway.rate-limit.idle-expiry-seconds:300}")
+    private long idleExpirySeconds;
+
+    @PostConstruct
+    void init() {
+        buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofSeconds(idleExpirySeconds))
+                .build();
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = configs.get(routeId);
+        if (config == null) {
+            // No limit configured for this route
+            return Mono.just(new Response(true, Map.of()));
+        }
+
+        long now = System.nanoTime();
+        Bucket bucket = buckets.get(routeId + ":" + id, k -> new Bucket(config.capacity, now));
+        return Mono.just(bucket.tryConsume(config, now));
+    }
+
+    @Override
+    public Map<String, Config> getConfig() {
+        return configs;
+    }
+
+    @Override
+    public Class<Config> getConfigClass() {
+        return Config.class;
+    }
+
+    @Override
+    public Config newConfig() {
+        return new Config();
+    }
+
+    /**
+     * Set the limit for a route: bursts of up to capacity requests, refilled at refillPerSecond
+     */
+    public void configure(String routeId, int capacity, double refillPerSecond) {
+        configs.put(routeId, new Config().setCapacity(capacity).setRefillPerSecond(refillPerSecond));
+    }
+
+    /**
+     * Number of buckets currently held
+     */
+    long bucketCount() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long lastRefill;
+
+        private Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.lastRefill = now;
+        }
+
+        synchronized Response tryConsume(Config config, long now) {
+            refill(config, now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return new Response(true, Map.of("X-RateLimit-Remaining", Long.toString((long) tokens)));
+            }
+            long retryAfterSeconds = (long) Math.ceil((1 - tokens) / config.refillPerSecond);
+            return new Response(false, Map.of(
+                    "Retry-After", Long.toString(Math.max(retryAfterSeconds, 1)),
+                    "X-RateLimit-Remaining", "0"));
+        }
+
+        private void refill(Config config, long now) {
+            double elapsedSeconds = (now - lastRefill) / 1_000_000_000.0;
+            tokens = Math.min(config.capacity, tokens + elapsedSeconds * config.refillPerSecond);
+            lastRefill = now;
+        }
+    }
+
+    /**
+     * Per-route bucket settings
+     */
+    public static class Config {
+        private int capacity = 10;
+        private double refillPerSecond = 1;
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public Config setCapacity(int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
+        public double getRefillPerSecond() {
+            return refillPerSecond;
+        }
+
+        public Config setRefillPerSecond(double refillPerSecond) {
+            this.refillPerSecond = refillPerSecond;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.bookfair.security;
+
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Restricts admin-only actuator endpoints of the gateway itself (JFR recordings) to
+ * requests with a valid ADMIN token. Routed requests are handled by
+ * {@link com.example.bookfair.filter.JwtAuthenticationGlobalFilter}.
+ */
+@Component
+public class AdminEndpointWebFilter implements WebFilter, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminEndpointWebFilter.class);
+
+    private static final String JFR_PATH = "/actuator/jfr";
+
+    @Autowired
+    private JwtVerifier jwtVerifier;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String path = exchange.getRequest().getPath().value();
+        if (!path.equals(JFR_PATH) && !path.startsWith(JFR_PATH + "/")) {
+            return chain.filter(exchange);
+        }
+
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return reject(exchange.getResponse(), HttpStatus.UNAUTHORIZED, "Authentication required");
+        }
+
+        Claims claims;
+        try {
+            claims = jwtVerifier.verify(authHeader.substring(7));
+        } catch (Exception e) {
+            logger.debug("Rejected invalid JWT on {}: {}", path, e.getMessage());
+            return reject(exchange.getResponse(), HttpStatus.UNAUTHORIZED, "Invalid or expired token");
+        }
+        if (!"ADMIN".equals(claims.get("role"))) {
+            return reject(exchange.getResponse(), HttpStatus.FORBIDDEN, "Admin access required");
+        }
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    private Mono<Void> reject(ServerHttpResponse response, HttpStatus status, String message) {
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] body = ("{\"error\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8);
+        DataBuffer buffer = response.bufferFactory().wrap(body);
+        return response.writeWith(Mono.just(buffer));
+    }
+}
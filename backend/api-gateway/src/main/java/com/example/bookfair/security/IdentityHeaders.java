@@ -0,0 +1,89 @@
+package com.example.bookfair.security;
+
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Identity headers the gateway adds after verifying a JWT.
+ * Backend services trust them instead of verifying the token again. The headers are
+ * signed with an HMAC over their values using gateway.identity.secret, which is shared
+ * only with the backend services, so they cannot be forged by clients.
+ * Without a secret the headers are still set (the rate limiter keys on them) but left
+ * unsigned, and the services ignore them.
+ */
+@Component
+public class IdentityHeaders {
+
+    public static final String USER_ID = "X-User-Id";
+    public static final String EMAIL = "X-User-Email";
+    public static final String ROLE = "X-User-Role";
+    public static final String ISSUED_AT = "X-User-Issued-At";
+    public static final String EXPIRES_AT = "X-User-Expires-At";
+    public static final String SIGNATURE = "X-User-Signature";
+
+    // Stripped from every incoming request before the gateway adds its own
+    public static final List<String> ALL = List.of(USER_ID, EMAIL, ROLE, ISSUED_AT, EXPIRES_AT, SIGNATURE);
+
+    @Value("${gateway.identity.secret:}")
+    private String secret;
+
+    // Mac is stateful and not thread-safe; one keyed instance per event-loop thread, reset by doFinal
+    private ThreadLocal<Mac> macs;
+
+    @PostConstruct
+    void init() {
+        if (secret.isBlank()) {
+            return;
+        }
+        SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance("HmacSHA256");
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 not available", e);
+            }
+        });
+    }
+
+    /**
+     * Set the signed identity headers for verified token claims
+     */
+    public void apply(HttpHeaders headers, Claims claims) {
+        String userId = claims.get("userId") != null ? claims.get("userId").toString() : "";
+        String email = claims.getSubject() != null ? claims.getSubject() : "";
+        String role = claims.get("role") != null ? claims.get("role").toString() : "";
+        long issuedAt = claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() / 1000 : 0;
+        long expiresAt = claims.getExpiration() != null ? claims.getExpiration().getTime() / 1000 : 0;
+
+        headers.set(USER_ID, userId);
+        headers.set(EMAIL, email);
+        headers.set(ROLE, role);
+        headers.set(ISSUED_AT, Long.toString(issuedAt));
+        headers.set(EXPIRES_AT, Long.toString(expiresAt));
+        if (macs != null) {
+            headers.set(SIGNATURE, sign(userId, email, role, issuedAt, expiresAt));
+        }
+    }
+
+    /**
+     * Sign the identity values. Services rebuild the same newline-joined string to verify.
+     * Times are epoch seconds.
+     */
+    public String sign(String userId, String email, String role, long issuedAt, long expiresAt) {
+        String payload = String.join("\n", userId, email, role, Long.toString(issuedAt), Long.toString(expiresAt));
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(macs.get().doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.bookfair.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Verifies JWTs issued by user-service and employee-service.
+ * The signing key and parser are built once; verification is pure CPU work with no I/O,
+ * so it is safe to call on the gateway's event loop.
+ */
+@Component
+public class JwtVerifier {
+
+    @Value("${jwt.secret}")
+    private String secret;
+
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .build();
+    }
+
+    /**
+     * Verify the token signature and expiry and return its claims
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
+     */
+    public Claims verify(String token) {
+        return jwtParser.parseClaimsJws(token).getBody();
+    }
+}
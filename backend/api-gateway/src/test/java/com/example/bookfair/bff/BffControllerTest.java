@@ -0,0 +1,105 @@
+package com.example.bookfair.bff;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class BffControllerTest {
+
+    private static final Map<String, AtomicInteger> backendCalls = new ConcurrentHashMap<>();
+
+    private static final HttpServer reservationService = startReservationService();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void backendProperties(DynamicPropertyRegistry registry) {
+        registry.add("gateway.services.reservation",
+                () -> "http://localhost:" + reservationService.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopReservationService() {
+        reservationService.stop(0);
+    }
+
+    @BeforeEach
+    void setUp() {
+        backendCalls.clear();
+    }
+
+    @Test
+    void testMap_ConcurrentCallsShareOneBackendFetch() {
+        // Given
+        WebClient client = WebClient.create("http://localhost:" + port);
+        ParameterizedTypeReference<Map<String, Object>> type = new ParameterizedTypeReference<>() {};
+
+        // When - two map page loads at the same time
+        List<Map<String, Object>> responses = Mono.zip(
+                client.get().uri("/api/bff/map").retrieve().bodyToMono(type),
+                client.get().uri("/api/bff/map").retrieve().bodyToMono(type)
+        ).map(results -> List.of(results.getT1(), results.getT2())).block();
+
+        // Then
+        assertNotNull(responses);
+        for (Map<String, Object> body : responses) {
+            assertEquals(List.of(Map.of("id", 1)), body.get("stalls"));
+            assertEquals(Map.of("width", 800), body.get("layout"));
+            assertFalse(body.containsKey("reservations"));
+        }
+        assertEquals(1, backendCalls.get("/api/reservations/all").get());
+        assertEquals(1, backendCalls.get("/api/reservations/map-layout").get());
+    }
+
+    // Stub reservation-service; slow enough that the two page loads overlap
+    private static HttpServer startReservationService() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.createContext("/api/reservations/all", exchange -> respond(exchange, "[{\"id\":1}]"));
+            server.createContext("/api/reservations/map-layout", exchange -> respond(exchange, "{\"width\":800}"));
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, String json) throws IOException {
+        backendCalls.computeIfAbsent(exchange.getRequestURI().getPath(), path -> new AtomicInteger()).incrementAndGet();
+        try {
+            Thread.sleep(500);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.bookfair.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter.Response;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryTokenBucketRateLimiterTest {
+
+    private InMemoryTokenBucketRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        rateLimiter = new InMemoryTokenBucketRateLimiter();
+        ReflectionTestUtils.setField(rateLimiter, "maxKeys", 3);
+        ReflectionTestUtils.setField(rateLimiter, "idleExpirySeconds", 300L);
+        rateLimiter.init();
+        // Effectively no refill during the test
+        rateLimiter.configure("reserve", 2, 0.001);
+    }
+
+    @Test
+    void testIsAllowed_UnconfiguredRouteIsNotLimited() {
+        StepVerifier.create(rateLimiter.isAllowed("other", "a@example.com"))
+                .assertNext(response -> assertTrue(response.isAllowed()))
+                .verifyComplete();
+        assertEquals(0, rateLimiter.bucketCount());
+    }
+
+    @Test
+    void testIsAllowed_RejectsOnceBucketIsEmpty() {
+        // Given
+        rateLimiter.isAllowed("reserve", "a@example.com").block();
+        rateLimiter.isAllowed("reserve", "a@example.com").block();
+
+        // When
+        Response rejected = rateLimiter.isAllowed("reserve", "a@example.com").block();
+        Response otherKey = rateLimiter.isAllowed("reserve", "b@example.com").block();
+
+        // Then
+        assertFalse(rejected.isAllowed());
+        assertEquals("0", rejected.getHeaders().get("X-RateLimit-Remaining"));
+        assertNotNull(rejected.getHeaders().get("Retry-After"));
+        assertTrue(otherKey.isAllowed());
+    }
+
+    @Test
+    void testIsAllowed_BucketCountStaysBoundedAtCapacity() {
+        // When - far more distinct keys than max-keys
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(rateLimiter.isAllowed("reserve", "user" + i + "@example.com").block().isAllowed());
+        }
+
+        // Then
+        assertTrue(rateLimiter.bucketCount() <= 3);
+    }
+
+    @Test
+    void testIsAllowed_KeepsLimitingActiveKeyAtCapacity() {
+        // Given - an active key that has used up its bucket
+        rateLimiter.isAllowed("reserve", "a@example.com").block();
+        rateLimiter.isAllowed("reserve", "a@example.com").block();
+
+        // When - the cache is at capacity with one other key
+        rateLimiter.isAllowed("reserve", "b@example.com").block();
+        rateLimiter.isAllowed("reserve", "c@example.com").block();
+
+        // Then
+        assertFalse(rateLimiter.isAllowed("reserve", "a@example.com").block().isAllowed());
+        assertEquals(3, rateLimiter.bucketCount());
+    }
+}
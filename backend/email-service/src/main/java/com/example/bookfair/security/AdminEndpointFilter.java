@@ -0,0 +1,77 @@
+package com.example.bookfair.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Email service has no Spring Security; this filter restricts the admin-only actuator
+ * endpoints (JFR recordings) to requests with a valid ADMIN token from user-service.
+ * Without a configured jwt.secret every request to them is rejected.
+ */
+@Component
+public class AdminEndpointFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminEndpointFilter.class);
+
+    private static final String JFR_PATH = "/actuator/jfr";
+
+    @Value("${jwt.secret:}")
+    private String secret;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !path.equals(JFR_PATH) && !path.startsWith(JFR_PATH + "/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (secret == null || secret.isBlank()) {
+            reject(response, HttpServletResponse.SC_FORBIDDEN, "Admin endpoints are disabled: jwt.secret is not set");
+            return;
+        }
+
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            reject(response, HttpServletResponse.SC_UNAUTHORIZED, "Authentication required");
+            return;
+        }
+
+        Claims claims;
+        try {
+            claims = Jwts.parser()
+                    .setSigningKey(secret.getBytes(StandardCharsets.UTF_8))
+                    .parseClaimsJws(authHeader.substring(7))
+                    .getBody();
+        } catch (Exception e) {
+            logger.debug("Rejected invalid JWT on {}: {}", request.getRequestURI(), e.getMessage());
+            reject(response, HttpServletResponse.SC_UNAUTHORIZED, "Invalid or expired token");
+            return;
+        }
+        if (!"ADMIN".equals(claims.get("role"))) {
+            reject(response, HttpServletResponse.SC_FORBIDDEN, "Admin access required");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private void reject(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + message + "\"}");
+    }
+}
@@ -2,8 +2,15 @@ package com.example.bookfair.employee;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// The controller, config, security, model and repository packages are siblings of this one
+@SpringBootApplication(scanBasePackages = "com.example.bookfair")
+@EnableJpaRepositories(basePackages = "com.example.bookfair.repository")
+@EntityScan(basePackages = "com.example.bookfair.model")
+@EnableScheduling
 public class EmployeeService {
     public static void main(String[] args) {
         SpringApplication.run(EmployeeService.class, args);
@@ -1,10 +1,21 @@
 package com.example.bookfair.config;
 
+import feign.Capability;
 import feign.RequestInterceptor;
 import feign.RequestTemplate;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
 import jakarta.servlet.http.HttpServletRequest;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -12,7 +23,10 @@ import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 /**
- * Feign configuration to pass Authorization header to downstream services
+ * Feign configuration to pass Authorization header and trace context to downstream services,
+ * and to protect callers with circuit breakers and bulkheads.
+ * Calls go through the pooled Apache HttpClient 5 client (spring.cloud.openfeign.httpclient.*);
+ * connect/read timeouts are set per client under spring.cloud.openfeign.client.config.
  */
 @Configuration
 public class FeignConfig {
@@ -41,5 +55,44 @@ public class FeignConfig {
             }
         };
     }
-}
 
+    /**
+     * Propagate the current trace (W3C traceparent) so downstream spans join this request's trace
+     */
+    @Bean
+    public RequestInterceptor tracingRequestInterceptor(ObjectProvider<Tracer> tracerProvider,
+                                                        ObjectProvider<Propagator> propagatorProvider) {
+        return template -> {
+            Tracer tracer = tracerProvider.getIfAvailable();
+            Propagator propagator = propagatorProvider.getIfAvailable();
+            if (tracer == null || propagator == null) {
+                return;
+            }
+            Span span = tracer.currentSpan();
+            if (span != null) {
+                propagator.inject(span.context(), template, (carrier, key, value) -> carrier.header(key, value));
+            }
+        };
+    }
+
+    /**
+     * Circuit breaker and bulkhead per downstream service, see {@link ResilienceConfig}
+     */
+    @Bean
+    public Capability resilienceCapability(CircuitBreakerRegistry circuitBreakerRegistry,
+                                           BulkheadRegistry bulkheadRegistry) {
+        return new ResilienceCapability(circuitBreakerRegistry, bulkheadRegistry);
+    }
+
+    /**
+     * Leased/available/pending connections of the pooled Feign HTTP client as httpcomponents.httpclient.pool.* meters
+     */
+    @Bean
+    public MeterBinder feignConnectionPoolMetrics(ObjectProvider<HttpClientConnectionManager> connectionManagerProvider) {
+        return registry -> {
+            if (connectionManagerProvider.getIfAvailable() instanceof PoolingHttpClientConnectionManager pool) {
+                new PoolingHttpClientConnectionManagerMetricsBinder(pool, "feign").bindTo(registry);
+            }
+        };
+    }
+}
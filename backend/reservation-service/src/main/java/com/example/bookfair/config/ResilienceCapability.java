@@ -0,0 +1,51 @@
+package com.example.bookfair.config;
+
+import feign.Capability;
+import feign.Client;
+import feign.Response;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.functions.CheckedSupplier;
+
+import java.io.IOException;
+
+/**
+ * Wraps every Feign call in a bulkhead and a circuit breaker named after the target
+ * service ("user-service", "email-service").
+ *
+ * Calls run on the caller's thread, so the Authorization and trace headers added by the
+ * request interceptors are kept; the time a call can take is bounded by the per-client
+ * connect/read timeouts. When the bulkhead is full or the breaker is open the call fails
+ * immediately with BulkheadFullException / CallNotPermittedException.
+ */
+public class ResilienceCapability implements Capability {
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+
+    public ResilienceCapability(CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry) {
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> {
+            String service = request.requestTemplate().feignTarget().name();
+            CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(service);
+            Bulkhead bulkhead = bulkheadRegistry.bulkhead(service);
+
+            CheckedSupplier<Response> call = Bulkhead.decorateCheckedSupplier(bulkhead,
+                    CircuitBreaker.decorateCheckedSupplier(circuitBreaker, () -> client.execute(request, options)));
+            try {
+                return call.get();
+            } catch (IOException | RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IOException(e);
+            }
+        };
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.bookfair.config;
+
+import feign.Response;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Circuit breakers and bulkheads for calls to user-service and email-service.
+ * Applied to the Feign clients by {@link ResilienceCapability}.
+ */
+@Configuration
+public class ResilienceConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResilienceConfig.class);
+
+    @Value("${resilience.circuit-breaker.failure-rate-threshold:50}")
+    private float failureRateThreshold;
+
+    // Calls slower than this count as failures
+    @Value("${resilience.circuit-breaker.slow-call-duration-ms:3000}")
+    private long slowCallDurationMs;
+
+    @Value("${resilience.circuit-breaker.sliding-window-size:20}")
+    private int slidingWindowSize;
+
+    @Value("${resilience.circuit-breaker.minimum-calls:10}")
+    private int minimumCalls;
+
+    // Time the breaker stays open before letting probe calls through (half-open)
+    @Value("${resilience.circuit-breaker.open-duration-ms:10000}")
+    private long openDurationMs;
+
+    @Value("${resilience.circuit-breaker.half-open-calls:3}")
+    private int halfOpenCalls;
+
+    @Value("${resilience.bulkhead.user-service.max-concurrent-calls:20}")
+    private int userServiceMaxConcurrentCalls;
+
+    @Value("${resilience.bulkhead.email-service.max-concurrent-calls:10}")
+    private int emailServiceMaxConcurrentCalls;
+
+    // How long a call may wait for a free bulkhead slot before failing
+    @Value("${resilience.bulkhead.max-wait-ms:50}")
+    private long bulkheadMaxWaitMs;
+
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry() {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(Duration.ofMillis(slowCallDurationMs))
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumCalls)
+                .waitDurationInOpenState(Duration.ofMillis(openDurationMs))
+                .permittedNumberOfCallsInHalfOpenState(halfOpenCalls)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                // 5xx responses are failures; 4xx (e.g. user not found) are not
+                .recordResult(result -> result instanceof Response response && response.status() >= 500)
+                .build();
+
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        registry.getEventPublisher().onEntryAdded(event -> event.getAddedEntry().getEventPublisher()
+                .onStateTransition(transition -> logger.warn("Circuit breaker {} changed state: {}",
+                        transition.getCircuitBreakerName(), transition.getStateTransition())));
+        return registry;
+    }
+
+    @Bean
+    public BulkheadRegistry bulkheadRegistry() {
+        BulkheadRegistry registry = BulkheadRegistry.of(bulkheadConfig(userServiceMaxConcurrentCalls));
+        registry.bulkhead("user-service", bulkheadConfig(userServiceMaxConcurrentCalls));
+        registry.bulkhead("email-service", bulkheadConfig(emailServiceMaxConcurrentCalls));
+        return registry;
+    }
+
+    @Bean
+    public MeterBinder resilienceMetrics(CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry) {
+        return meterRegistry -> {
+            TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+            TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+        };
+    }
+
+    private BulkheadConfig bulkheadConfig(int maxConcurrentCalls) {
+        return BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ofMillis(bulkheadMaxWaitMs))
+                .build();
+    }
+}
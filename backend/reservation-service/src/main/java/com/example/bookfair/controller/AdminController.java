@@ -1,7 +1,7 @@
 package com.example.bookfair.controller;
 
-import com.example.bookfair.client.UserClient;
 import com.example.bookfair.dto.UserResponse;
+import com.example.bookfair.event.StallsChangedEvent;
 import com.example.bookfair.exception.ResourceNotFoundException;
 import com.example.bookfair.model.MapLayout;
 import com.example.bookfair.model.Reservation;
@@ -9,10 +9,15 @@ import com.example.bookfair.model.Stall;
 import com.example.bookfair.repository.MapLayoutRepository;
 import com.example.bookfair.repository.ReservationRepository;
 import com.example.bookfair.repository.StallRepository;
+import com.example.bookfair.security.TokenRevocationList;
+import com.example.bookfair.service.AdminMaintenanceService;
+import com.example.bookfair.service.QrCodeFileCleaner;
+import com.example.bookfair.service.UserDirectory;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -37,69 +42,26 @@ public class AdminController {
     private MapLayoutRepository mapLayoutRepository;
 
     @Autowired
-    private UserClient userClient;
+    private AdminMaintenanceService adminMaintenanceService;
+
+    @Autowired
+    private QrCodeFileCleaner qrCodeFileCleaner;
+
+    @Autowired
+    private UserDirectory userDirectory;
 
     @Autowired
     private ObjectMapper objectMapper;
 
     @Autowired
-    private com.example.bookfair.security.JwtUtil jwtUtil;
-
-    // Helper method to check if user is admin
-    // First tries to get role from JWT token (faster, more reliable)
-    // Falls back to user-service call if token doesn't have role
-    private boolean isAdmin(Authentication authentication) {
-        if (authentication == null) {
-            logger.warn("Authentication is null - cannot check admin status");
-            return false;
-        }
-        String email = authentication.getName();
-        logger.debug("Checking admin status for user: {}", email);
-        
-        // Try to get role from JWT token first (from request header)
-        try {
-            jakarta.servlet.http.HttpServletRequest request = 
-                ((org.springframework.web.context.request.ServletRequestAttributes) 
-                    org.springframework.web.context.request.RequestContextHolder.getRequestAttributes())
-                    .getRequest();
-            String authHeader = request.getHeader("Authorization");
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                String token = authHeader.substring(7);
-                String role = jwtUtil.extractRole(token);
-                if (role != null) {
-                    boolean isAdmin = "ADMIN".equals(role);
-                    logger.debug("User {} has role from token: {}, isAdmin: {}", email, role, isAdmin);
-                    return isAdmin;
-                }
-            }
-        } catch (Exception e) {
-            logger.debug("Could not extract role from token, falling back to user-service: {}", e.getMessage());
-        }
-        
-        // Fallback: get role from user-service
-        try {
-            UserResponse user = userClient.getUserByEmail(email);
-            if (user == null) {
-                logger.warn("User not found for email: {}", email);
-                return false;
-            }
-            boolean isAdmin = "ADMIN".equals(user.getRole());
-            logger.debug("User {} has role from user-service: {}, isAdmin: {}", email, user.getRole(), isAdmin);
-            return isAdmin;
-        } catch (Exception e) {
-            logger.error("Failed to check admin status for user {}: {}", email, e.getMessage(), e);
-            return false;
-        }
-    }
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
 
     // Get all reservations
     @GetMapping("/reservations")
     public ResponseEntity<?> getAllReservations(Authentication authentication) {
-        if (!isAdmin(authentication)) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(Map.of("error", "Access denied. Admin role required."));
-        }
-
         List<Reservation> reservations = reservationRepository.findAll();
         List<Map<String, Object>> reservationList = reservations.stream()
                 .map(reservation -> {
@@ -110,7 +72,7 @@ public class AdminController {
                     
                     // Fetch user details from user-service
                     try {
-                        UserResponse user = userClient.getUserById(reservation.getUserId());
+                        UserResponse user = userDirectory.getById(reservation.getUserId());
                         if (user != null) {
                             resMap.put("username", user.getUsername());
                         }
@@ -140,11 +102,6 @@ public class AdminController {
     // Delete reservation
     @DeleteMapping("/reservations/{reservationId}")
     public ResponseEntity<?> deleteReservation(@PathVariable Long reservationId, Authentication authentication) {
-        if (!isAdmin(authentication)) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(Map.of("error", "Access denied. Admin role required."));
-        }
-
         Optional<Reservation> resOpt = reservationRepository.findById(reservationId);
         if (resOpt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -159,6 +116,7 @@ public class AdminController {
         
         // Delete the reservation
         reservationRepository.delete(reservation);
+        eventPublisher.publishEvent(StallsChangedEvent.of(List.of(reservation.getStall().getId())));
 
         return ResponseEntity.ok(Map.of("message", "Reservation deleted successfully"));
     }
@@ -173,7 +131,8 @@ public class AdminController {
             debugInfo.put("authorities", authentication.getAuthorities().toString());
             debugInfo.put("details", authentication.getDetails() != null ? authentication.getDetails().toString() : "null");
         }
-        debugInfo.put("isAdmin", isAdmin(authentication));
+        debugInfo.put("isAdmin", authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority())));
         return ResponseEntity.ok(debugInfo);
     }
 
@@ -181,13 +140,6 @@ public class AdminController {
     @GetMapping("/map-layout")
     public ResponseEntity<?> getMapLayout(Authentication authentication) {
         logger.info("GET /api/admin/map-layout - Authentication: {}", authentication != null ? authentication.getName() : "null");
-        if (!isAdmin(authentication)) {
-            logger.warn("GET /api/admin/map-layout - Access denied for user: {}", 
-                    authentication != null ? authentication.getName() : "null");
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(Map.of("error", "Access denied. Admin role required."));
-        }
-
         Optional<MapLayout> layoutOpt = mapLayoutRepository.findTopByOrderByIdDesc();
         if (layoutOpt.isEmpty()) {
             return ResponseEntity.ok(Map.of("halls", new ArrayList<>()));
@@ -233,13 +185,6 @@ public class AdminController {
             @RequestBody Map<String, Object> request,
             Authentication authentication) {
         logger.info("POST /api/admin/map-layout - Authentication: {}", authentication != null ? authentication.getName() : "null");
-        if (!isAdmin(authentication)) {
-            logger.warn("POST /api/admin/map-layout - Access denied for user: {}", 
-                    authentication != null ? authentication.getName() : "null");
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(Map.of("error", "Access denied. Admin role required."));
-        }
-
         try {
             // Validate request has halls
             if (!request.containsKey("halls") || !(request.get("halls") instanceof List)) {
@@ -271,6 +216,12 @@ public class AdminController {
             int createdStalls = 0;
             int updatedStalls = 0;
             int errorStalls = 0;
+
+            // Look up existing stalls by name from one query instead of a findAll per stall
+            Map<String, Stall> stallsByName = new HashMap<>();
+            for (Stall existing : stallRepository.findAll()) {
+                stallsByName.putIfAbsent(existing.getName(), existing);
+            }
             
             for (Map<String, Object> hall : halls) {
                 Object stallsObj = hall.get("stalls");
@@ -289,11 +240,7 @@ public class AdminController {
                                 continue;
                             }
                             
-                            final String finalStallId = stallId;
-                            Optional<Stall> existingStallOpt = 
-                                stallRepository.findAll().stream()
-                                    .filter(s -> finalStallId.equals(s.getName()))
-                                    .findFirst();
+                            Optional<Stall> existingStallOpt = Optional.ofNullable(stallsByName.get(stallId));
                             
                             Stall stall;
                             if (existingStallOpt.isPresent()) {
@@ -329,7 +276,9 @@ public class AdminController {
                                 stall.setReserved(false);
                             }
                             
-                            stallRepository.save(stall);
+                            Stall savedStall = stallRepository.save(stall);
+                            // A stall listed twice in the layout updates the first one, as before
+                            stallsByName.putIfAbsent(stallId, savedStall);
                         } catch (Exception e) {
                             errorStalls++;
                             logger.error("Error saving stall: {} - {}", stallData, e.getMessage(), e);
@@ -348,6 +297,7 @@ public class AdminController {
             layout.setLayoutData(layoutJson);
             
             MapLayout savedLayout = mapLayoutRepository.save(layout);
+            eventPublisher.publishEvent(StallsChangedEvent.all());
             
             Optional<MapLayout> verifyLayout = mapLayoutRepository.findById(savedLayout.getId());
             if (verifyLayout.isEmpty()) {
@@ -392,29 +342,24 @@ public class AdminController {
     // Clear all reservations and reset stall statuses
     @DeleteMapping("/clear-reservations")
     public ResponseEntity<?> clearAllReservations(Authentication authentication) {
-        if (!isAdmin(authentication)) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(Map.of("error", "Admin access required"));
-        }
-
         try {
-            List<Reservation> allReservations = reservationRepository.findAll();
-            long count = allReservations.size();
+            long start = System.nanoTime();
+            AdminMaintenanceService.ResetSummary summary = adminMaintenanceService.clearReservations();
+            long durationMs = (System.nanoTime() - start) / 1_000_000;
 
-            reservationRepository.deleteAll();
-
-            List<Stall> allStalls = stallRepository.findAll();
-            for (Stall stall : allStalls) {
-                stall.setReserved(false);
-                stallRepository.save(stall);
-            }
+            // Files are removed only after the bulk delete has committed
+            qrCodeFileCleaner.deleteFiles(summary.getQrCodeFilenames());
 
+            logger.info("Cleared all reservations - Reservations: {}, Stalls reset: {}, Took: {} ms",
+                    summary.getDeletedReservations(), summary.getResetStalls(), durationMs);
             return ResponseEntity.ok(Map.of(
                 "message", "All reservations cleared successfully",
-                "deletedReservations", count,
-                "resetStalls", allStalls.size()
+                "deletedReservations", summary.getDeletedReservations(),
+                "resetStalls", summary.getResetStalls(),
+                "durationMs", durationMs
             ));
         } catch (Exception e) {
+            logger.error("Failed to clear reservations: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to clear reservations: " + e.getMessage()));
         }
@@ -423,32 +368,27 @@ public class AdminController {
     // Clear all data (reservations, map layouts, and stalls)
     @DeleteMapping("/clear-all-data")
     public ResponseEntity<?> clearAllData(Authentication authentication) {
-        if (!isAdmin(authentication)) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(Map.of("error", "Admin access required"));
-        }
-
         try {
-            long reservationCount = reservationRepository.count();
-            reservationRepository.deleteAll();
+            long start = System.nanoTime();
+            AdminMaintenanceService.ResetSummary summary = adminMaintenanceService.clearAllData();
+            long durationMs = (System.nanoTime() - start) / 1_000_000;
 
-            List<Stall> allStalls = stallRepository.findAll();
-            for (Stall stall : allStalls) {
-                stall.setReserved(false);
-                stallRepository.save(stall);
-            }
+            qrCodeFileCleaner.deleteFiles(summary.getQrCodeFilenames());
 
-            long mapLayoutCount = mapLayoutRepository.count();
-            mapLayoutRepository.deleteAll();
+            logger.info("Cleared all data - Reservations: {}, Stalls reset: {}, Map layouts: {}, Took: {} ms",
+                    summary.getDeletedReservations(), summary.getResetStalls(),
+                    summary.getDeletedMapLayouts(), durationMs);
 
             Map<String, Object> response = new HashMap<>();
             response.put("message", "All data cleared successfully");
-            response.put("deletedReservations", reservationCount);
-            response.put("resetStalls", allStalls.size());
-            response.put("deletedMapLayouts", mapLayoutCount);
+            response.put("deletedReservations", summary.getDeletedReservations());
+            response.put("resetStalls", summary.getResetStalls());
+            response.put("deletedMapLayouts", summary.getDeletedMapLayouts());
+            response.put("durationMs", durationMs);
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
+            logger.error("Failed to clear data: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to clear data: " + e.getMessage()));
         }
@@ -457,23 +397,20 @@ public class AdminController {
     // Delete all stalls
     @DeleteMapping("/delete-all-stalls")
     public ResponseEntity<?> deleteAllStalls(Authentication authentication) {
-        if (!isAdmin(authentication)) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(Map.of("error", "Admin access required"));
-        }
-
         try {
-            long reservationCount = reservationRepository.count();
-            reservationRepository.deleteAll();
-            
-            long existingCount = stallRepository.count();
-            stallRepository.deleteAll();
-            
-            logger.info("Deleted all stalls and reservations - Stalls: {}, Reservations: {}", existingCount, reservationCount);
+            long start = System.nanoTime();
+            AdminMaintenanceService.ResetSummary summary = adminMaintenanceService.deleteAllStalls();
+            long durationMs = (System.nanoTime() - start) / 1_000_000;
+
+            qrCodeFileCleaner.deleteFiles(summary.getQrCodeFilenames());
+
+            logger.info("Deleted all stalls and reservations - Stalls: {}, Reservations: {}, Took: {} ms",
+                    summary.getDeletedStalls(), summary.getDeletedReservations(), durationMs);
             return ResponseEntity.ok(Map.of(
                 "message", "All stalls and reservations deleted successfully",
-                "deletedStalls", existingCount,
-                "deletedReservations", reservationCount,
+                "deletedStalls", summary.getDeletedStalls(),
+                "deletedReservations", summary.getDeletedReservations(),
+                "durationMs", durationMs,
                 "note", "Stalls will be created automatically when you save a map layout."
             ));
         } catch (Exception e) {
@@ -483,6 +420,37 @@ public class AdminController {
         }
     }
 
+    // Revoke a user's existing tokens (called by user-service after a role change or deletion)
+    @PostMapping("/token-revocations")
+    public ResponseEntity<?> revokeTokens(@RequestBody Map<String, String> request) {
+        String email = request.get("email");
+        if (email == null || email.isBlank()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Invalid request: 'email' is required"));
+        }
+
+        tokenRevocationList.revoke(email);
+        logger.info("Revoked tokens issued to user: {}", email);
+        return ResponseEntity.ok(Map.of("message", "Tokens revoked successfully", "email", email));
+    }
+
+    // Drop a user from the local user cache (called by user-service after a role change or deletion)
+    @PostMapping("/user-cache-invalidations")
+    public ResponseEntity<?> invalidateUserCache(@RequestBody Map<String, Object> request) {
+        Object idObj = request.get("id");
+        Object emailObj = request.get("email");
+        if (idObj == null && emailObj == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Invalid request: 'id' or 'email' is required"));
+        }
+
+        Long id = idObj instanceof Number ? ((Number) idObj).longValue() : null;
+        String email = emailObj != null ? emailObj.toString() : null;
+        userDirectory.invalidate(id, email);
+        logger.info("Invalidated cached user: id={}, email={}", id, email);
+        return ResponseEntity.ok(Map.of("message", "User cache invalidated successfully"));
+    }
+
     // Get reservation statistics (internal endpoint for user-service)
     @GetMapping("/stats-internal")
     public ResponseEntity<?> getReservationStats() {
@@ -4,6 +4,7 @@ import com.example.bookfair.dto.*;
 import com.example.bookfair.model.MapLayout;
 import com.example.bookfair.repository.MapLayoutRepository;
 import com.example.bookfair.service.ReservationService;
+import com.example.bookfair.service.StallRecommendationService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,6 +25,9 @@ public class ReservationController {
     @Autowired
     private ReservationService reservationService;
 
+    @Autowired
+    private StallRecommendationService stallRecommendationService;
+
     @Autowired
     private MapLayoutRepository mapLayoutRepository;
 
@@ -42,6 +46,47 @@ public class ReservationController {
         return ResponseEntity.ok(responses);
     }
 
+    // Search stalls by genre, size and availability (served from the in-memory stall index)
+    @GetMapping("/search")
+    public ResponseEntity<List<StallResponse>> searchStalls(
+            @RequestParam(required = false) List<String> genres,
+            @RequestParam(defaultValue = "any") String match,
+            @RequestParam(required = false) String size,
+            @RequestParam(required = false) Boolean available,
+            @RequestParam(defaultValue = "0") int limit) {
+        boolean matchAll = "all".equalsIgnoreCase(match);
+        List<StallResponse> responses = reservationService.searchStalls(genres, matchAll, size, available, limit);
+        return ResponseEntity.ok(responses);
+    }
+
+    // Stalls inside the visible map area; zoomed-out views get clusters instead of individual stalls
+    @GetMapping("/viewport")
+    public ResponseEntity<ViewportResponse> viewport(
+            @RequestParam int minX,
+            @RequestParam int minY,
+            @RequestParam int maxX,
+            @RequestParam int maxY,
+            @RequestParam(defaultValue = "1") double zoom) {
+        ViewportResponse response = reservationService.getViewport(minX, minY, maxX, maxY, zoom);
+        return ResponseEntity.ok(response);
+    }
+
+    // Recommend stalls by genre affinity and distance from (x, y).
+    // Uses the explicit genres, or the signed-in user's registered genres when none are given.
+    @GetMapping("/recommendations")
+    public ResponseEntity<List<StallRecommendation>> recommendations(
+            @RequestParam(required = false) List<String> genres,
+            @RequestParam(required = false) Integer x,
+            @RequestParam(required = false) Integer y,
+            @RequestParam(required = false) Boolean available,
+            @RequestParam(defaultValue = "10") int k,
+            Authentication authentication) {
+        String userEmail = authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+        List<StallRecommendation> recommendations =
+                stallRecommendationService.recommend(userEmail, genres, x, y, available, k);
+        return ResponseEntity.ok(recommendations);
+    }
+
     @PostMapping("/reserve")
     public ResponseEntity<ReservationCreateResponse> reserve(@Valid @RequestBody ReservationRequest request, Authentication authentication) {
         String userEmail = authentication.getName();
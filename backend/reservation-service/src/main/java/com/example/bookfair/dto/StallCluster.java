@@ -0,0 +1,55 @@
+package com.example.bookfair.dto;
+
+/**
+ * DTO for a group of nearby stalls shown as one marker on a zoomed-out map
+ */
+public class StallCluster {
+    // Mean position of the stalls in the cluster
+    private int x;
+    private int y;
+    private int count;
+    private int available;
+
+    public StallCluster() {
+    }
+
+    public StallCluster(int x, int y, int count, int available) {
+        this.x = x;
+        this.y = y;
+        this.count = count;
+        this.available = available;
+    }
+
+    // Getters and Setters
+    public int getX() {
+        return x;
+    }
+
+    public void setX(int x) {
+        this.x = x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public void setY(int y) {
+        this.y = y;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public int getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(int available) {
+        this.available = available;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.bookfair.dto;
+
+import java.util.List;
+
+/**
+ * DTO for a recommended stall with its score breakdown
+ */
+public class StallRecommendation {
+    private StallResponse stall;
+    private double score;
+    private List<String> matchedGenres;
+    private Double distance;
+
+    public StallRecommendation() {
+    }
+
+    public StallRecommendation(StallResponse stall, double score, List<String> matchedGenres, Double distance) {
+        this.stall = stall;
+        this.score = score;
+        this.matchedGenres = matchedGenres;
+        this.distance = distance;
+    }
+
+    // Getters and Setters
+    public StallResponse getStall() {
+        return stall;
+    }
+
+    public void setStall(StallResponse stall) {
+        this.stall = stall;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    public List<String> getMatchedGenres() {
+        return matchedGenres;
+    }
+
+    public void setMatchedGenres(List<String> matchedGenres) {
+        this.matchedGenres = matchedGenres;
+    }
+
+    public Double getDistance() {
+        return distance;
+    }
+
+    public void setDistance(Double distance) {
+        this.distance = distance;
+    }
+}
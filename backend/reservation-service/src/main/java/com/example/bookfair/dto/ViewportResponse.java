@@ -0,0 +1,60 @@
+package com.example.bookfair.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for the stalls inside a map viewport.
+ * Zoomed-in views get individual stalls; zoomed-out views get per-area clusters instead.
+ */
+public class ViewportResponse {
+    private boolean clustered;
+    private int totalStalls;
+    private int availableStalls;
+    private List<StallResponse> stalls = new ArrayList<>();
+    private List<StallCluster> clusters = new ArrayList<>();
+
+    public ViewportResponse() {
+    }
+
+    // Getters and Setters
+    public boolean isClustered() {
+        return clustered;
+    }
+
+    public void setClustered(boolean clustered) {
+        this.clustered = clustered;
+    }
+
+    public int getTotalStalls() {
+        return totalStalls;
+    }
+
+    public void setTotalStalls(int totalStalls) {
+        this.totalStalls = totalStalls;
+    }
+
+    public int getAvailableStalls() {
+        return availableStalls;
+    }
+
+    public void setAvailableStalls(int availableStalls) {
+        this.availableStalls = availableStalls;
+    }
+
+    public List<StallResponse> getStalls() {
+        return stalls;
+    }
+
+    public void setStalls(List<StallResponse> stalls) {
+        this.stalls = stalls;
+    }
+
+    public List<StallCluster> getClusters() {
+        return clusters;
+    }
+
+    public void setClusters(List<StallCluster> clusters) {
+        this.clusters = clusters;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.bookfair.event;
+
+import java.util.Map;
+
+/**
+ * Published when a reservation email should go out. The email outbox sends it only after
+ * the surrounding transaction commits, so a rolled-back reservation sends nothing and the
+ * send never runs while the reservation's rows are locked.
+ */
+public class ReservationEmailEvent {
+
+    public enum Type { RESERVATION_REQUEST, RESERVATION_CONFIRMATION }
+
+    private final Type type;
+    private final Map<String, Object> request;
+
+    private ReservationEmailEvent(Type type, Map<String, Object> request) {
+        this.type = type;
+        this.request = request;
+    }
+
+    /**
+     * Reservation request received
+     */
+    public static ReservationEmailEvent request(Map<String, Object> request) {
+        return new ReservationEmailEvent(Type.RESERVATION_REQUEST, request);
+    }
+
+    /**
+     * Reservation confirmed, with the QR code
+     */
+    public static ReservationEmailEvent confirmation(Map<String, Object> request) {
+        return new ReservationEmailEvent(Type.RESERVATION_CONFIRMATION, request);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Map<String, Object> getRequest() {
+        return request;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.bookfair.event;
+
+/**
+ * Published when a reservation needs its QR code image. The image is written only after
+ * the surrounding transaction commits, so a rolled-back reservation leaves no file behind.
+ */
+public class ReservationQrCodeEvent {
+
+    private final Long reservationId;
+    private final String qrText;
+    private final String qrFilename;
+
+    public ReservationQrCodeEvent(Long reservationId, String qrText, String qrFilename) {
+        this.reservationId = reservationId;
+        this.qrText = qrText;
+        this.qrFilename = qrFilename;
+    }
+
+    public Long getReservationId() {
+        return reservationId;
+    }
+
+    public String getQrText() {
+        return qrText;
+    }
+
+    public String getQrFilename() {
+        return qrFilename;
+    }
+}
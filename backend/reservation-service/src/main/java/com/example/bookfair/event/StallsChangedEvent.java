@@ -0,0 +1,44 @@
+package com.example.bookfair.event;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Published whenever stall rows change (reservation state, genres, layout, resets).
+ * In-memory stall caches listen for this after the surrounding transaction commits,
+ * so they never observe a change that was rolled back.
+ */
+public class StallsChangedEvent {
+
+    private final boolean fullReset;
+    private final Set<Long> stallIds;
+
+    private StallsChangedEvent(boolean fullReset, Set<Long> stallIds) {
+        this.fullReset = fullReset;
+        this.stallIds = stallIds;
+    }
+
+    /**
+     * Any stall may have changed (bulk resets, layout saves, stall deletion)
+     */
+    public static StallsChangedEvent all() {
+        return new StallsChangedEvent(true, Collections.emptySet());
+    }
+
+    /**
+     * Only the given stalls changed
+     */
+    public static StallsChangedEvent of(Collection<Long> stallIds) {
+        return new StallsChangedEvent(false, Collections.unmodifiableSet(new HashSet<>(stallIds)));
+    }
+
+    public boolean isFullReset() {
+        return fullReset;
+    }
+
+    public Set<Long> getStallIds() {
+        return stallIds;
+    }
+}
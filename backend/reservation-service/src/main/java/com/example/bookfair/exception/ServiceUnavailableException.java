@@ -0,0 +1,14 @@
+package com.example.bookfair.exception;
+
+/**
+ * Exception thrown when a downstream service the request depends on is unavailable (503)
+ */
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+
+    public ServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.bookfair.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts SQL statements prepared by Hibernate on the current thread.
+ * Registered through hibernate.session_factory.statement_inspector, so Hibernate creates
+ * the instance; the count is static and read as a before/after difference by
+ * {@link QueryMetricsConfig} (per request) and by tests.
+ * Statements issued through JdbcTemplate bypass Hibernate and are not counted.
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * Number of statements prepared on this thread so far
+     */
+    public static long count() {
+        return COUNT.get()[0];
+    }
+}
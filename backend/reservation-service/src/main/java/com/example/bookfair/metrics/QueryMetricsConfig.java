@@ -0,0 +1,79 @@
+package com.example.bookfair.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the number of SQL statements each endpoint runs as http.server.queries
+ * (tagged method and uri pattern) and logs a warning when a request exceeds
+ * query.count.warn-threshold, which usually means a query inside a loop (N+1).
+ */
+@Configuration
+public class QueryMetricsConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryMetricsConfig.class);
+
+    private static final String START_COUNT_ATTRIBUTE = QueryMetricsConfig.class.getName() + ".startCount";
+
+    @Value("${query.count.warn-threshold:20}")
+    private long warnThreshold;
+
+    // One summary per (method, uri pattern); built once instead of looked up on every request
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    @Bean
+    public WebMvcConfigurer queryCountConfigurer(MeterRegistry meterRegistry) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new HandlerInterceptor() {
+                    @Override
+                    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                        request.setAttribute(START_COUNT_ATTRIBUTE, QueryCountInspector.count());
+                        return true;
+                    }
+
+                    @Override
+                    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                                Object handler, Exception ex) {
+                        Object startCount = request.getAttribute(START_COUNT_ATTRIBUTE);
+                        if (!(startCount instanceof Long)) {
+                            return;
+                        }
+                        long queries = QueryCountInspector.count() - (Long) startCount;
+                        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+                        String method = request.getMethod();
+                        summaries.computeIfAbsent(method + " " + uri, key -> DistributionSummary.builder("http.server.queries")
+                                        .description("SQL statements executed per request")
+                                        .tag("method", method)
+                                        .tag("uri", uri)
+                                        .publishPercentiles(0.5, 0.99)
+                                        .register(meterRegistry))
+                                .record(queries);
+
+                        if (queries > warnThreshold) {
+                            logger.warn("{} {} executed {} SQL statements (threshold {}), possible N+1 query",
+                                    method, uri, queries, warnThreshold);
+                        }
+                    }
+                });
+            }
+        };
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.bookfair.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * Timers and counters for the reservation hot path.
+ *
+ * reservation.create.stage  - one timer per stage of createReservation, tagged stage and
+ *                             exception ("none" on success); the "commit" stage covers the
+ *                             flush of the stall UPDATE and reservation INSERT plus the commit;
+ *                             the QR stages run after the commit, in QrCodeFileWriter, and
+ *                             the email stages after them, in EmailOutbox
+ * reservation.create        - whole createReservation call including the commit, tagged outcome
+ * reservation.create.outcome - count of createReservation calls, tagged outcome
+ */
+@Component
+public class ReservationMetrics {
+
+    public static final String STAGE_USER_LOOKUP = "user_lookup";
+    public static final String STAGE_RESERVATION_COUNT = "reservation_count";
+    public static final String STAGE_STALL_READ = "stall_read";
+    public static final String STAGE_STALL_WRITE = "stall_write";
+    public static final String STAGE_RESERVATION_INSERT = "reservation_insert";
+    public static final String STAGE_EMAIL_REQUEST = "email_request";
+    public static final String STAGE_QR_RENDER = "qr_render";
+    public static final String STAGE_QR_FILE_WRITE = "qr_file_write";
+    public static final String STAGE_RESERVATION_UPDATE = "reservation_update";
+    public static final String STAGE_EMAIL_CONFIRMATION = "email_confirmation";
+    public static final String STAGE_COMMIT = "commit";
+
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_ALREADY_RESERVED = "already_reserved";
+    public static final String OUTCOME_QUOTA_EXCEEDED = "quota_exceeded";
+    public static final String OUTCOME_STALL_NOT_FOUND = "stall_not_found";
+    public static final String OUTCOME_USER_NOT_FOUND = "user_not_found";
+    public static final String OUTCOME_ERROR = "error";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Time one stage
+     */
+    public <T> T time(String stage, Supplier<T> work) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return work.get();
+        } catch (RuntimeException e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(stageTimer(stage, exception));
+        }
+    }
+
+    /**
+     * Time one stage whose work throws checked exceptions (file and image I/O)
+     */
+    public <T> T timeChecked(String stage, Callable<T> work) throws Exception {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return work.call();
+        } catch (Exception e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(stageTimer(stage, exception));
+        }
+    }
+
+    public Timer.Sample startCreate() {
+        return Timer.start(meterRegistry);
+    }
+
+    /**
+     * Record the outcome and total duration of one createReservation call.
+     * Inside a transaction this happens once it has completed, so the commit is timed as
+     * its own stage and included in the total; a successful call whose commit fails is
+     * recorded as an error.
+     */
+    public void recordCreate(Timer.Sample sample, String outcome) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            stopCreate(sample, outcome);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private Timer.Sample commitSample;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                commitSample = Timer.start(meterRegistry);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                boolean committed = status == STATUS_COMMITTED;
+                if (commitSample != null) {
+                    commitSample.stop(stageTimer(STAGE_COMMIT, committed ? "none" : "RolledBack"));
+                }
+                stopCreate(sample, committed || !OUTCOME_SUCCESS.equals(outcome) ? outcome : OUTCOME_ERROR);
+            }
+        });
+    }
+
+    private void stopCreate(Timer.Sample sample, String outcome) {
+        sample.stop(Timer.builder("reservation.create")
+                .description("Reservation creation, all stages")
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        Counter.builder("reservation.create.outcome")
+                .description("Reservation attempts by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private Timer stageTimer(String stage, String exception) {
+        return Timer.builder("reservation.create.stage")
+                .description("Duration of one reservation creation stage")
+                .tag("stage", stage)
+                .tag("exception", exception)
+                .publishPercentiles(0.5, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
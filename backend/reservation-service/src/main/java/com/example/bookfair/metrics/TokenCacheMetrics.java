@@ -0,0 +1,41 @@
+package com.example.bookfair.metrics;
+
+import com.example.bookfair.security.VerifiedTokenCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exposes the {@link VerifiedTokenCache} statistics as jwt.cache.* meters
+ */
+@Component
+public class TokenCacheMetrics implements MeterBinder {
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("jwt.cache.requests", verifiedTokenCache, VerifiedTokenCache::getHits)
+                .description("Verified token cache lookups")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("jwt.cache.requests", verifiedTokenCache, VerifiedTokenCache::getMisses)
+                .description("Verified token cache lookups")
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("jwt.cache.size", verifiedTokenCache, VerifiedTokenCache::getSize)
+                .description("Verified tokens currently cached")
+                .register(registry);
+        FunctionCounter.builder("jwt.cache.saved", verifiedTokenCache,
+                        cache -> cache.getSavedNanos() / (double) TimeUnit.SECONDS.toNanos(1))
+                .description("Estimated verification time saved by cache hits")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.bookfair.repository;
 
 import com.example.bookfair.model.Reservation;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import java.util.List;
@@ -13,5 +15,18 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     
     @Query("SELECT COUNT(r) FROM Reservation r WHERE r.userId = :userId")
     long countByUserId(@Param("userId") Long userId);
-}
 
+    @Query("SELECT r.stall.id FROM Reservation r WHERE r.userEmail = :userEmail")
+    List<Long> findStallIdsByUserEmail(@Param("userEmail") String userEmail);
+
+    // Bulk maintenance helpers (used by admin reset operations), walked by keyset
+    @Query("SELECT r.id FROM Reservation r WHERE r.id > :afterId ORDER BY r.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT r.qrCodeFilename FROM Reservation r WHERE r.id IN :ids AND r.qrCodeFilename IS NOT NULL")
+    List<String> findQrCodeFilenamesByIdIn(@Param("ids") List<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Reservation r WHERE r.id IN :ids")
+    int bulkDeleteByIds(@Param("ids") List<Long> ids);
+}
@@ -1,7 +1,19 @@
 package com.example.bookfair.repository;
 import com.example.bookfair.model.Stall;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
-public interface StallRepository extends JpaRepository<Stall, Long> {
+public interface StallRepository extends JpaRepository<Stall, Long>, StallRepositoryCustom {
     List<Stall> findByReservedFalse();
+
+    // Bulk maintenance helpers (used by admin reset operations), walked by keyset
+    @Query("SELECT s.id FROM Stall s WHERE s.reserved = true AND s.id > :afterId ORDER BY s.id")
+    List<Long> findReservedIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Stall s SET s.reserved = false WHERE s.id IN :ids")
+    int bulkReleaseByIds(@Param("ids") List<Long> ids);
 }
@@ -0,0 +1,11 @@
+package com.example.bookfair.repository;
+
+import java.util.Map;
+
+/**
+ * Stall operations that are executed as plain JDBC batches
+ */
+public interface StallRepositoryCustom {
+    // Update genres of several stalls in one JDBC batch (stall ID -> comma-separated genres)
+    int[] batchUpdateGenres(Map<Long, String> genresByStallId);
+}
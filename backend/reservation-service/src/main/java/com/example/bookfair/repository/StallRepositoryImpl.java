@@ -0,0 +1,31 @@
+package com.example.bookfair.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC-backed implementation of {@link StallRepositoryCustom}.
+ * Runs inside the caller's JPA transaction (JpaTransactionManager exposes its connection).
+ */
+public class StallRepositoryImpl implements StallRepositoryCustom {
+
+    private static final String UPDATE_GENRES_SQL = "UPDATE stalls SET genres = ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] batchUpdateGenres(Map<Long, String> genresByStallId) {
+        if (genresByStallId.isEmpty()) {
+            return new int[0];
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>(genresByStallId.size());
+        genresByStallId.forEach((stallId, genres) -> batchArgs.add(new Object[]{genres, stallId}));
+        return jdbcTemplate.batchUpdate(UPDATE_GENRES_SQL, batchArgs);
+    }
+}
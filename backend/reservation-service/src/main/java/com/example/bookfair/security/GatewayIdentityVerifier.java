@@ -0,0 +1,112 @@
+package com.example.bookfair.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Verifies the signed X-User-* identity headers added by the API gateway after it has
+ * verified the caller's JWT. A valid signature means the gateway already did the JWT
+ * verification, so the request is authenticated from the headers alone.
+ * Requests without valid headers (e.g. direct service-to-service calls) fall back to
+ * verifying the bearer token.
+ */
+@Component
+public class GatewayIdentityVerifier {
+
+    public static final String USER_ID = "X-User-Id";
+    public static final String EMAIL = "X-User-Email";
+    public static final String ROLE = "X-User-Role";
+    public static final String ISSUED_AT = "X-User-Issued-At";
+    public static final String EXPIRES_AT = "X-User-Expires-At";
+    public static final String SIGNATURE = "X-User-Signature";
+
+    // Empty secret (the default) disables trust in gateway headers
+    @Value("${gateway.identity.secret:}")
+    private String secret;
+
+    // Mac is stateful and not thread-safe; one keyed instance per request thread, reset by doFinal
+    private ThreadLocal<Mac> macs;
+
+    @PostConstruct
+    void init() {
+        if (secret.isBlank()) {
+            return;
+        }
+        SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance("HmacSHA256");
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 not available", e);
+            }
+        });
+    }
+
+    /**
+     * Return claims built from valid gateway identity headers, or null if absent or invalid
+     */
+    public Claims verify(HttpServletRequest request) {
+        String signature = request.getHeader(SIGNATURE);
+        if (signature == null || macs == null) {
+            return null;
+        }
+
+        String userId = request.getHeader(USER_ID);
+        String email = request.getHeader(EMAIL);
+        String role = request.getHeader(ROLE);
+        String issuedAt = request.getHeader(ISSUED_AT);
+        String expiresAt = request.getHeader(EXPIRES_AT);
+        if (userId == null || email == null || email.isEmpty() || role == null || issuedAt == null || expiresAt == null) {
+            return null;
+        }
+
+        long issuedAtSeconds;
+        long expiresAtSeconds;
+        try {
+            issuedAtSeconds = Long.parseLong(issuedAt);
+            expiresAtSeconds = Long.parseLong(expiresAt);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (expiresAtSeconds * 1000 <= System.currentTimeMillis()) {
+            return null;
+        }
+
+        String payload = String.join("\n", userId, email, role, issuedAt, expiresAt);
+        if (!MessageDigest.isEqual(sign(payload).getBytes(StandardCharsets.UTF_8),
+                signature.getBytes(StandardCharsets.UTF_8))) {
+            return null;
+        }
+
+        Claims claims = Jwts.claims()
+                .setSubject(email)
+                .setIssuedAt(new Date(issuedAtSeconds * 1000))
+                .setExpiration(new Date(expiresAtSeconds * 1000));
+        if (!role.isEmpty()) {
+            claims.put("role", role);
+        }
+        if (!userId.isEmpty()) {
+            claims.put("userId", userId);
+        }
+        return claims;
+    }
+
+    private String sign(String payload) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(macs.get().doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.bookfair.security;
 
 import com.example.bookfair.security.JwtUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,6 +10,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -16,6 +19,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -23,7 +27,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private GatewayIdentityVerifier gatewayIdentityVerifier;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
@@ -35,6 +45,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (path.startsWith("/api/reservations/available") || 
             path.startsWith("/api/reservations/all") ||
             path.startsWith("/api/reservations/map-layout") ||
+            path.startsWith("/api/reservations/search") ||
+            path.startsWith("/api/reservations/viewport") ||
             path.equals("/api/admin/stats-internal") ||
             path.equals("/api/admin/user-counts-internal")) {
             chain.doFilter(request, response);
@@ -43,42 +55,50 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwt = null;
+        // Identity already verified by the API gateway, if the request came through it
+        Claims claims = gatewayIdentityVerifier.verify(request);
 
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwt = authHeader.substring(7);
+        if (claims == null && authHeader != null && authHeader.startsWith("Bearer ")) {
+            String jwt = authHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwt);
-                logger.debug("Extracted username from JWT: {} for path: {}", username, path);
+                // Verifies signature and expiry once per distinct token, then served from the cache
+                claims = verifiedTokenCache.getVerifiedClaims(jwt);
+                logger.debug("Verified JWT for user: {} on path: {}", claims.getSubject(), path);
             } catch (Exception e) {
-                logger.warn("Failed to extract username from JWT for path {}: {}", path, e.getMessage());
+                logger.warn("JWT token validation failed for path {}: {}", path, e.getMessage());
                 // Invalid token - continue without authentication
             }
-        } else {
+        } else if (claims == null) {
             logger.debug("No Authorization header found for path: {}", path);
         }
 
+        String username = claims != null ? claims.getSubject() : null;
+        if (username != null && tokenRevocationList.isRevoked(username, claims.getIssuedAt())) {
+            logger.warn("Rejected revoked JWT for user: {} on path: {}", username, path);
+            username = null;
+        }
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            try {
-                if (jwtUtil.validateToken(jwt, username)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            username,
-                            null,
-                            new ArrayList<>()
-                    );
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                    logger.debug("Authentication set for user: {} on path: {}", username, path);
-                } else {
-                    logger.warn("JWT token validation failed for user: {} on path: {}", username, path);
-                }
-            } catch (Exception e) {
-                logger.error("Error validating JWT token for user: {} on path: {}: {}", username, path, e.getMessage());
-            }
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                    username,
+                    null,
+                    authoritiesFrom(claims)
+            );
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+            logger.debug("Authentication set for user: {} on path: {}", username, path);
         }
 
         chain.doFilter(request, response);
     }
+
+    // Role claim "ADMIN" becomes authority "ROLE_ADMIN", matched by hasRole("ADMIN")
+    private List<GrantedAuthority> authoritiesFrom(Claims claims) {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        Object role = claims.get("role");
+        if (role != null) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + role));
+        }
+        return authorities;
+    }
 }
 
@@ -4,6 +4,8 @@ import com.example.bookfair.config.CorsConfig;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -31,15 +33,29 @@ public class SecurityConfig {
                         .requestMatchers("/api/reservations/available").permitAll()
                         .requestMatchers("/api/reservations/all").permitAll()
                         .requestMatchers("/api/reservations/map-layout").permitAll()
+                        .requestMatchers("/api/reservations/search").permitAll()
+                        .requestMatchers("/api/reservations/recommendations").permitAll()
+                        .requestMatchers("/api/reservations/viewport").permitAll()
                         .requestMatchers("/api/admin/stats-internal").permitAll()
                         .requestMatchers("/api/admin/user-counts-internal").permitAll()
+                        // Health checks (gateway) and metrics scraping; not routed by the gateway
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                         .requestMatchers("/api/reservations/my-reservations").authenticated()
                         .requestMatchers("/api/reservations/reserve").authenticated()
-                        .requestMatchers("/api/admin/reservations/**").authenticated()
-                        .requestMatchers("/api/admin/stalls/**").authenticated()
-                        .requestMatchers("/api/admin/map-layout/**").authenticated()
+                        .requestMatchers("/api/admin/debug-auth").authenticated()
+                        // Role comes from the JWT "role" claim, see JwtAuthenticationFilter
+                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        // JFR recordings expose stack traces and heap statistics
+                        .requestMatchers("/actuator/jfr", "/actuator/jfr/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
+                .exceptionHandling(exceptions -> exceptions
+                        .accessDeniedHandler((request, response, accessDeniedException) -> {
+                            response.setStatus(HttpStatus.FORBIDDEN.value());
+                            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                            response.getWriter().write("{\"error\":\"Access denied. Admin role required.\"}");
+                        })
+                )
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
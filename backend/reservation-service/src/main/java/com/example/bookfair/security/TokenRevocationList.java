@@ -0,0 +1,53 @@
+package com.example.bookfair.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Small in-memory list of revoked token subjects.
+ * When a user's role changes or the user is deleted, every token issued to them before
+ * that moment is rejected. Entries are kept only as long as a token can live, after which
+ * any token they would reject has expired anyway.
+ */
+@Component
+public class TokenRevocationList {
+
+    @Value("${jwt.expiration}")
+    private long tokenLifetimeMs;
+
+    // Subject (email) -> time of revocation in epoch millis, floored to whole seconds like iat
+    private final Map<String, Long> revokedAt = new ConcurrentHashMap<>();
+
+    /**
+     * Revoke all tokens issued to the subject before the current second
+     */
+    public void revoke(String subject) {
+        long now = System.currentTimeMillis();
+        revokedAt.put(subject, now - now % 1000);
+    }
+
+    /**
+     * Whether a token for the subject issued at the given time has been revoked.
+     * Tokens without an issued-at time are treated as revoked if the subject is listed.
+     */
+    public boolean isRevoked(String subject, Date issuedAt) {
+        Long revoked = revokedAt.get(subject);
+        if (revoked == null) {
+            return false;
+        }
+        // iat has second precision; a token issued in the same second as the revocation (e.g. the
+        // one the user gets by logging in again right after a role change) stays valid
+        return issuedAt == null || issuedAt.getTime() < revoked;
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void purgeExpired() {
+        long cutoff = System.currentTimeMillis() - tokenLifetimeMs;
+        revokedAt.values().removeIf(revoked -> revoked < cutoff);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.bookfair.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of verified JWT claims keyed by the token itself.
+ * Clients resend the same token on every request, so only the first request pays for
+ * signature verification and claims decoding. Entries never outlive the token's own
+ * expiry, and are additionally capped by jwt.cache.max-ttl-ms; beyond jwt.cache.max-size
+ * the least valuable entries are evicted. Failed verifications are not cached.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(VerifiedTokenCache.class);
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Value("${jwt.cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${jwt.cache.max-ttl-ms:300000}")
+    private long maxTtlMs;
+
+    private Cache<String, Claims> cache;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder verificationNanos = new LongAdder();
+    private final LongAdder savedNanos = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String token, Claims claims, long currentTime) {
+                        long ttlMs = maxTtlMs;
+                        if (claims.getExpiration() != null) {
+                            ttlMs = Math.min(ttlMs, claims.getExpiration().getTime() - System.currentTimeMillis());
+                        }
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(ttlMs, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Return the verified claims of a token, verifying it only on a cache miss
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
+     */
+    public Claims getVerifiedClaims(String token) {
+        Claims cached = cache.getIfPresent(token);
+        if (cached != null) {
+            hits.increment();
+            savedNanos.add(averageVerificationNanos());
+            return cached;
+        }
+
+        misses.increment();
+        long start = System.nanoTime();
+        Claims claims = jwtUtil.parseClaims(token);
+        verificationNanos.add(System.nanoTime() - start);
+        cache.put(token, claims);
+        return claims;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getSize() {
+        return cache.estimatedSize();
+    }
+
+    public double getHitRate() {
+        long lookups = getHits() + getMisses();
+        return lookups == 0 ? 0.0 : (double) getHits() / lookups;
+    }
+
+    // Verification time avoided by cache hits, estimated from the mean cost of a miss
+    public long getSavedNanos() {
+        return savedNanos.sum();
+    }
+
+    @Scheduled(fixedRateString = "${jwt.cache.stats-log-interval-ms:300000}",
+            initialDelayString = "${jwt.cache.stats-log-interval-ms:300000}")
+    public void logStats() {
+        if (getHits() + getMisses() == 0) {
+            return;
+        }
+        logger.info("Verified token cache - Size: {}, Hits: {}, Misses: {}, Hit rate: {}%, Verification time saved: {} ms",
+                getSize(), getHits(), getMisses(), Math.round(getHitRate() * 1000) / 10.0, getSavedNanos() / 1_000_000);
+    }
+
+    private long averageVerificationNanos() {
+        long verifications = misses.sum();
+        return verifications == 0 ? 0 : verificationNanos.sum() / verifications;
+    }
+}
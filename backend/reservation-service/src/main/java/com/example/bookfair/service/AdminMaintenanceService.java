@@ -0,0 +1,162 @@
+package com.example.bookfair.service;
+
+import com.example.bookfair.event.StallsChangedEvent;
+import com.example.bookfair.repository.MapLayoutRepository;
+import com.example.bookfair.repository.ReservationRepository;
+import com.example.bookfair.repository.StallRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Set-based bulk reset operations used by the admin controller between fair days.
+ * Rows are changed with JPQL bulk statements over chunks of IDs instead of being loaded
+ * and saved one entity at a time. Each operation runs in a single transaction, so a reset
+ * is all-or-nothing; chunking bounds the size of each statement, not of the transaction.
+ */
+@Service
+public class AdminMaintenanceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminMaintenanceService.class);
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private StallRepository stallRepository;
+
+    @Autowired
+    private MapLayoutRepository mapLayoutRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${admin.bulk.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * Delete all reservations and mark every stall as available again
+     */
+    @Transactional
+    public ResetSummary clearReservations() {
+        ResetSummary summary = new ResetSummary();
+        summary.deletedReservations = deleteAllReservationsInChunks(summary.qrCodeFilenames);
+        // Every stall ends up available, so report them all; only the reserved ones are written
+        summary.resetStalls = stallRepository.count();
+        releaseAllStallsInChunks();
+
+        eventPublisher.publishEvent(StallsChangedEvent.all());
+        return summary;
+    }
+
+    /**
+     * Delete all reservations and map layouts, and mark every stall as available again
+     */
+    @Transactional
+    public ResetSummary clearAllData() {
+        ResetSummary summary = clearReservations();
+        summary.deletedMapLayouts = mapLayoutRepository.count();
+        mapLayoutRepository.deleteAllInBatch();
+        return summary;
+    }
+
+    /**
+     * Delete all reservations and stalls
+     */
+    @Transactional
+    public ResetSummary deleteAllStalls() {
+        ResetSummary summary = new ResetSummary();
+        summary.deletedReservations = deleteAllReservationsInChunks(summary.qrCodeFilenames);
+        summary.deletedStalls = stallRepository.count();
+        stallRepository.deleteAllInBatch();
+
+        eventPublisher.publishEvent(StallsChangedEvent.all());
+        return summary;
+    }
+
+    /**
+     * Delete reservations chunk by chunk, collecting the QR code files of exactly the
+     * reservations that were deleted
+     */
+    private long deleteAllReservationsInChunks(List<String> qrCodeFilenames) {
+        return inKeysetChunks(
+                afterId -> reservationRepository.findIdsAfter(afterId, PageRequest.of(0, chunkSize())),
+                ids -> {
+                    qrCodeFilenames.addAll(reservationRepository.findQrCodeFilenamesByIdIn(ids));
+                    return reservationRepository.bulkDeleteByIds(ids);
+                },
+                "reservation delete");
+    }
+
+    private void releaseAllStallsInChunks() {
+        inKeysetChunks(
+                afterId -> stallRepository.findReservedIdsAfter(afterId, PageRequest.of(0, chunkSize())),
+                stallRepository::bulkReleaseByIds,
+                "stall release");
+    }
+
+    /**
+     * Run a bulk statement over the IDs returned by nextIds, one chunk at a time.
+     * Chunks are fetched by keyset (id > last seen id), so sparse ID ranges cost nothing.
+     */
+    private long inKeysetChunks(Function<Long, List<Long>> nextIds, Function<List<Long>, Integer> statement,
+                                String label) {
+        long total = 0;
+        int chunks = 0;
+        long afterId = 0;
+        List<Long> ids = nextIds.apply(afterId);
+        while (!ids.isEmpty()) {
+            total += statement.apply(ids);
+            chunks++;
+            afterId = ids.get(ids.size() - 1);
+            ids = nextIds.apply(afterId);
+        }
+
+        logger.debug("Bulk {} finished - Rows: {}, Chunks: {}", label, total, chunks);
+        return total;
+    }
+
+    private int chunkSize() {
+        return Math.max(chunkSize, 1);
+    }
+
+    /**
+     * Result of a bulk reset operation
+     */
+    public static class ResetSummary {
+        private long deletedReservations;
+        private long resetStalls;
+        private long deletedStalls;
+        private long deletedMapLayouts;
+        private final List<String> qrCodeFilenames = new ArrayList<>();
+
+        public long getDeletedReservations() {
+            return deletedReservations;
+        }
+
+        public long getResetStalls() {
+            return resetStalls;
+        }
+
+        public long getDeletedStalls() {
+            return deletedStalls;
+        }
+
+        public long getDeletedMapLayouts() {
+            return deletedMapLayouts;
+        }
+
+        public List<String> getQrCodeFilenames() {
+            return qrCodeFilenames;
+        }
+    }
+}
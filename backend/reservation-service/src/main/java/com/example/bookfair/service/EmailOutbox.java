@@ -0,0 +1,127 @@
+package com.example.bookfair.service;
+
+import com.example.bookfair.client.EmailClient;
+import com.example.bookfair.event.ReservationEmailEvent;
+import com.example.bookfair.event.ReservationEmailEvent.Type;
+import com.example.bookfair.metrics.ReservationMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Sends reservation emails through email-service once the reservation has committed.
+ * A send that fails (email-service down, circuit breaker open, bulkhead full) is queued in
+ * memory and retried in the background, so a reservation never fails because of email.
+ */
+@Service
+public class EmailOutbox {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutbox.class);
+
+    @Autowired
+    private EmailClient emailClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ReservationMetrics reservationMetrics;
+
+    @Value("${email.outbox.max-size:1000}")
+    private int maxSize;
+
+    @Value("${email.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    private BlockingQueue<PendingEmail> pending;
+
+    @PostConstruct
+    public void init() {
+        pending = new LinkedBlockingQueue<>(maxSize);
+        Gauge.builder("email.outbox.pending", this, EmailOutbox::getPendingCount)
+                .description("Emails waiting to be retried")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Send the email after the publishing transaction commits, or queue it for retry.
+     * Without a transaction it is sent right away.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onReservationEmail(ReservationEmailEvent event) {
+        String stage = event.getType() == Type.RESERVATION_CONFIRMATION
+                ? ReservationMetrics.STAGE_EMAIL_CONFIRMATION
+                : ReservationMetrics.STAGE_EMAIL_REQUEST;
+        reservationMetrics.time(stage, () -> deliver(new PendingEmail(event.getType(), event.getRequest())));
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Retry queued emails. Stops at the first failure so a down email-service is probed
+     * once per interval rather than once per queued email.
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.retry-interval-ms:30000}")
+    public void retryPending() {
+        int count = pending.size();
+        for (int i = 0; i < count; i++) {
+            PendingEmail email = pending.poll();
+            if (email == null) {
+                return;
+            }
+            if (!deliver(email)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Try to send the email, queueing it for retry on failure. Returns true if it was sent.
+     */
+    private boolean deliver(PendingEmail email) {
+        try {
+            switch (email.type) {
+                case RESERVATION_REQUEST -> emailClient.sendReservationRequestEmail(email.request);
+                case RESERVATION_CONFIRMATION -> emailClient.sendReservationConfirmation(email.request);
+            }
+            return true;
+        } catch (Exception e) {
+            email.attempts++;
+            if (email.attempts >= maxAttempts) {
+                logger.error("Giving up on {} email to {} after {} attempts: {}",
+                        email.type, email.request.get("email"), email.attempts, e.getMessage());
+            } else if (!pending.offer(email)) {
+                logger.error("Email outbox full, dropping {} email to {}", email.type, email.request.get("email"));
+            } else {
+                logger.warn("Failed to send {} email to {} (attempt {}), queued for retry: {}",
+                        email.type, email.request.get("email"), email.attempts, e.getMessage());
+            }
+            return false;
+        }
+    }
+
+    private static final class PendingEmail {
+        private final Type type;
+        private final Map<String, Object> request;
+        private int attempts;
+
+        private PendingEmail(Type type, Map<String, Object> request) {
+            this.type = type;
+            this.request = request;
+        }
+    }
+}
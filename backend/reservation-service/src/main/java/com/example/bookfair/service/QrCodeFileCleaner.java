@@ -0,0 +1,62 @@
+package com.example.bookfair.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Removes QR code images of deleted reservations off the request thread
+ */
+@Component
+public class QrCodeFileCleaner {
+
+    private static final Logger logger = LoggerFactory.getLogger(QrCodeFileCleaner.class);
+
+    @Value("${qr.code.directory:./qr-codes}")
+    private String qrDirectory;
+
+    /**
+     * Delete the given QR files from the QR directory.
+     * Must only be called after the reservations were committed as deleted.
+     */
+    @Async
+    public void deleteFiles(List<String> filenames) {
+        if (filenames == null || filenames.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        Path qrDir = Paths.get(qrDirectory).toAbsolutePath().normalize();
+        int deleted = 0;
+        int failed = 0;
+
+        for (String filename : filenames) {
+            Path qrPath = qrDir.resolve(filename).normalize();
+            // Never follow a stored filename outside the QR directory
+            if (!qrPath.startsWith(qrDir)) {
+                logger.warn("Skipping QR file outside of QR directory: {}", filename);
+                failed++;
+                continue;
+            }
+            try {
+                if (Files.deleteIfExists(qrPath)) {
+                    deleted++;
+                }
+            } catch (IOException e) {
+                failed++;
+                logger.warn("Failed to delete QR file {}: {}", qrPath, e.getMessage());
+            }
+        }
+
+        logger.info("QR cleanup finished - Deleted: {}, Failed: {}, Took: {} ms",
+                deleted, failed, (System.nanoTime() - start) / 1_000_000);
+    }
+}
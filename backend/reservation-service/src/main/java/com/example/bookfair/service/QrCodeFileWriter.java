@@ -0,0 +1,59 @@
+package com.example.bookfair.service;
+
+import com.example.bookfair.event.ReservationQrCodeEvent;
+import com.example.bookfair.metrics.ReservationMetrics;
+import com.example.bookfair.util.QrUtil;
+import com.google.zxing.common.BitMatrix;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Writes QR code images of new reservations once the reservation has committed
+ */
+@Component
+public class QrCodeFileWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(QrCodeFileWriter.class);
+
+    @Autowired
+    private ReservationMetrics reservationMetrics;
+
+    @Value("${qr.code.directory:./qr-codes}")
+    private String qrDirectory;
+
+    /**
+     * Render and write the QR image after the publishing transaction commits.
+     * Runs ahead of the email outbox so the confirmation email finds the file.
+     * Without a transaction it is written right away.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onReservationQrCode(ReservationQrCodeEvent event) {
+        try {
+            Path qrDir = Paths.get(qrDirectory);
+            if (!Files.exists(qrDir)) {
+                Files.createDirectories(qrDir);
+            }
+            Path qrPath = qrDir.resolve(event.getQrFilename());
+            BitMatrix qrMatrix = reservationMetrics.timeChecked(ReservationMetrics.STAGE_QR_RENDER,
+                    () -> QrUtil.renderQRCode(event.getQrText()));
+            reservationMetrics.timeChecked(ReservationMetrics.STAGE_QR_FILE_WRITE,
+                    () -> QrUtil.writeQRCodeImage(qrMatrix, qrPath.toString()));
+        } catch (Exception e) {
+            // The reservation is already committed; it stands without its QR image
+            logger.error("Failed to write QR code for reservation {}: {}",
+                    event.getReservationId(), e.getMessage(), e);
+        }
+    }
+}
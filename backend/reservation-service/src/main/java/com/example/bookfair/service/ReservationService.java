@@ -1,28 +1,34 @@
 package com.example.bookfair.service;
 
-import com.example.bookfair.client.EmailClient;
-import com.example.bookfair.client.UserClient;
 import com.example.bookfair.dto.*;
+import com.example.bookfair.event.ReservationEmailEvent;
+import com.example.bookfair.event.ReservationQrCodeEvent;
+import com.example.bookfair.event.StallsChangedEvent;
 import com.example.bookfair.exception.BadRequestException;
 import com.example.bookfair.exception.ResourceNotFoundException;
+import com.example.bookfair.exception.ServiceUnavailableException;
+import com.example.bookfair.metrics.ReservationMetrics;
 import com.example.bookfair.model.Reservation;
 import com.example.bookfair.model.Stall;
 import com.example.bookfair.repository.ReservationRepository;
 import com.example.bookfair.repository.StallRepository;
-import com.example.bookfair.util.QrUtil;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -40,14 +46,24 @@ public class ReservationService {
     private StallRepository stallRepository;
 
     @Autowired
-    private UserClient userClient;
+    private UserDirectory userDirectory;
 
     @Autowired
-    private EmailClient emailClient;
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private StallIndex stallIndex;
+
+    @Autowired
+    private ReservationMetrics reservationMetrics;
 
     @Value("${qr.code.directory:./qr-codes}")
     private String qrDirectory;
 
+    // Map zoom (scale factor) below which viewport queries return clusters instead of stalls
+    @Value("${stall.viewport.cluster-below-zoom:0.5}")
+    private double clusterBelowZoom;
+
     private static final int MAX_RESERVATIONS_PER_USER = 3;
 
     /**
@@ -70,90 +86,145 @@ public class ReservationService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Search stalls by genres, size and availability using the in-memory stall index
+     */
+    public List<StallResponse> searchStalls(List<String> genres, boolean matchAll, String size, Boolean available, int limit) {
+        return stallIndex.search(genres, matchAll, size, available, limit).stream()
+                .map(StallIndex.IndexedStall::toStallResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get the stalls inside a map viewport. Below the cluster zoom level the stalls are
+     * summarized per grid cell instead of being returned one by one.
+     */
+    public ViewportResponse getViewport(int minX, int minY, int maxX, int maxY, double zoom) {
+        if (minX > maxX || minY > maxY) {
+            throw new BadRequestException("Invalid viewport: min coordinates must not exceed max coordinates");
+        }
+
+        ViewportResponse response = new ViewportResponse();
+        if (zoom < clusterBelowZoom) {
+            List<StallCluster> clusters = stallIndex.clustersInViewport(minX, minY, maxX, maxY);
+            response.setClustered(true);
+            response.setClusters(clusters);
+            response.setTotalStalls(clusters.stream().mapToInt(StallCluster::getCount).sum());
+            response.setAvailableStalls(clusters.stream().mapToInt(StallCluster::getAvailable).sum());
+        } else {
+            List<StallIndex.IndexedStall> stalls = stallIndex.inViewport(minX, minY, maxX, maxY);
+            response.setStalls(stalls.stream()
+                    .map(StallIndex.IndexedStall::toStallResponse)
+                    .collect(Collectors.toList()));
+            response.setTotalStalls(stalls.size());
+            response.setAvailableStalls((int) stalls.stream().filter(stall -> !stall.isReserved()).count());
+        }
+        return response;
+    }
+
     /**
      * Create a reservation for a user
      */
     @Transactional
     public ReservationCreateResponse createReservation(Long stallId, String userEmail) {
-        // Fetch user from user-service via Feign client
-        UserResponse user;
+        Timer.Sample createSample = reservationMetrics.startCreate();
+        String outcome = ReservationMetrics.OUTCOME_ERROR;
         try {
-            user = userClient.getUserByEmail(userEmail);
+            // Fetch user from user-service (falls back to last known data if it is unavailable)
+            UserResponse user;
+            try {
+                user = reservationMetrics.time(ReservationMetrics.STAGE_USER_LOOKUP,
+                        () -> userDirectory.getByEmail(userEmail));
+            } catch (Exception e) {
+                // user-service unreachable or failing, not a missing user
+                logger.error("Failed to fetch user from user-service: {}", e.getMessage());
+                throw new ServiceUnavailableException("User service unavailable, please try again", e);
+            }
             if (user == null) {
+                outcome = ReservationMetrics.OUTCOME_USER_NOT_FOUND;
                 throw new ResourceNotFoundException("User not found");
             }
-        } catch (Exception e) {
-            logger.error("Failed to fetch user from user-service: {}", e.getMessage());
-            throw new ResourceNotFoundException("User not found: " + e.getMessage());
-        }
 
-        Long userId = user.getId();
+            Long userId = user.getId();
 
-        // Check if user already has maximum reservations
-        long count = reservationRepository.countByUserId(userId);
-        if (count >= MAX_RESERVATIONS_PER_USER) {
-            throw new BadRequestException("Maximum " + MAX_RESERVATIONS_PER_USER + " stalls allowed per user");
-        }
+            // Check if user already has maximum reservations
+            long count = reservationMetrics.time(ReservationMetrics.STAGE_RESERVATION_COUNT,
+                    () -> reservationRepository.countByUserId(userId));
+            if (count >= MAX_RESERVATIONS_PER_USER) {
+                outcome = ReservationMetrics.OUTCOME_QUOTA_EXCEEDED;
+                throw new BadRequestException("Maximum " + MAX_RESERVATIONS_PER_USER + " stalls allowed per user");
+            }
 
-        Stall stall = stallRepository.findById(stallId)
-                .orElseThrow(() -> new ResourceNotFoundException("Stall not found"));
+            Stall stall = reservationMetrics.time(ReservationMetrics.STAGE_STALL_READ,
+                    () -> stallRepository.findById(stallId)).orElse(null);
+            if (stall == null) {
+                outcome = ReservationMetrics.OUTCOME_STALL_NOT_FOUND;
+                throw new ResourceNotFoundException("Stall not found");
+            }
 
-        if (stall.isReserved()) {
-            throw new BadRequestException("Stall already reserved");
-        }
+            if (stall.isReserved()) {
+                outcome = ReservationMetrics.OUTCOME_ALREADY_RESERVED;
+                throw new BadRequestException("Stall already reserved");
+            }
 
-        // Reserve the stall
-        stall.setReserved(true);
-        stallRepository.save(stall);
+            // Reserve the stall (the UPDATE itself is flushed at commit)
+            stall.setReserved(true);
+            reservationMetrics.time(ReservationMetrics.STAGE_STALL_WRITE, () -> stallRepository.save(stall));
+            eventPublisher.publishEvent(StallsChangedEvent.of(List.of(stall.getId())));
 
-        // Create reservation
-        Reservation reservation = new Reservation();
-        reservation.setUserId(userId);
-        reservation.setUserEmail(userEmail);
-        reservation.setStall(stall);
-        reservation = reservationRepository.save(reservation);
+            // Create reservation
+            Reservation newReservation = new Reservation();
+            newReservation.setUserId(userId);
+            newReservation.setUserEmail(userEmail);
+            newReservation.setStall(stall);
+            Reservation reservation = reservationMetrics.time(ReservationMetrics.STAGE_RESERVATION_INSERT,
+                    () -> reservationRepository.save(newReservation));
 
-        // Send reservation request email (non-blocking)
-        try {
-            Map<String, Object> emailRequest = new HashMap<>();
-            emailRequest.put("email", user.getEmail());
-            emailRequest.put("username", user.getUsername());
-            emailRequest.put("stallName", stall.getName());
-            emailRequest.put("stallSize", stall.getSize());
-            emailRequest.put("reservationId", reservation.getId());
-            emailRequest.put("createdAt", reservation.getCreatedAt().toString());
-            emailClient.sendReservationRequestEmail(emailRequest);
-        } catch (Exception e) {
-            logger.warn("Failed to send reservation request email: {}", e.getMessage());
-        }
+            // Reservation request email, sent after commit (queued for retry if email-service is unavailable)
+            try {
+                Map<String, Object> emailRequest = new HashMap<>();
+                emailRequest.put("email", user.getEmail());
+                emailRequest.put("username", user.getUsername());
+                emailRequest.put("stallName", stall.getName());
+                emailRequest.put("stallSize", stall.getSize());
+                emailRequest.put("reservationId", reservation.getId());
+                emailRequest.put("createdAt", reservation.getCreatedAt().toString());
+                eventPublisher.publishEvent(ReservationEmailEvent.request(emailRequest));
+            } catch (Exception e) {
+                logger.warn("Failed to queue reservation request email: {}", e.getMessage());
+            }
 
-        // Generate QR code
-        String qrFilename = generateQrCode(reservation, stallId, userEmail);
+            // QR code, written after commit (ahead of the confirmation email)
+            String qrFilename = assignQrCode(reservation, stallId, userEmail);
 
-        // Send confirmation email with QR code (non-blocking)
-        try {
-            Path qrPath = Paths.get(qrDirectory).resolve(qrFilename);
-            String absoluteQrPath = qrPath.toAbsolutePath().toString();
-            
-            Map<String, Object> emailRequest = new HashMap<>();
-            emailRequest.put("email", user.getEmail());
-            emailRequest.put("username", user.getUsername());
-            emailRequest.put("stallName", stall.getName());
-            emailRequest.put("stallSize", stall.getSize());
-            emailRequest.put("reservationId", reservation.getId());
-            emailRequest.put("createdAt", reservation.getCreatedAt().toString());
-            emailRequest.put("qrCodePath", absoluteQrPath);
-            emailClient.sendReservationConfirmation(emailRequest);
-        } catch (Exception e) {
-            logger.warn("Failed to send confirmation email: {}", e.getMessage());
-        }
+            // Confirmation email with QR code, sent after commit (queued for retry if email-service is unavailable)
+            try {
+                Path qrPath = Paths.get(qrDirectory).resolve(qrFilename);
+                String absoluteQrPath = qrPath.toAbsolutePath().toString();
 
-        return new ReservationCreateResponse(
-                "Reservation confirmed successfully",
-                reservation.getId(),
-                stall.getName(),
-                qrFilename
-        );
+                Map<String, Object> emailRequest = new HashMap<>();
+                emailRequest.put("email", user.getEmail());
+                emailRequest.put("username", user.getUsername());
+                emailRequest.put("stallName", stall.getName());
+                emailRequest.put("stallSize", stall.getSize());
+                emailRequest.put("reservationId", reservation.getId());
+                emailRequest.put("createdAt", reservation.getCreatedAt().toString());
+                emailRequest.put("qrCodePath", absoluteQrPath);
+                eventPublisher.publishEvent(ReservationEmailEvent.confirmation(emailRequest));
+            } catch (Exception e) {
+                logger.warn("Failed to queue confirmation email: {}", e.getMessage());
+            }
+
+            outcome = ReservationMetrics.OUTCOME_SUCCESS;
+            return new ReservationCreateResponse(
+                    "Reservation confirmed successfully",
+                    reservation.getId(),
+                    stall.getName(),
+                    qrFilename
+            );
+        } finally {
+            reservationMetrics.recordCreate(createSample, outcome);
+        }
     }
 
     /**
@@ -167,33 +238,26 @@ public class ReservationService {
     }
 
     /**
-     * Generate QR code for reservation
+     * Record the QR code filename on the reservation. The image itself is rendered and
+     * written by QrCodeFileWriter once the reservation has committed.
      */
-    private String generateQrCode(Reservation reservation, Long stallId, String userEmail) {
-        try {
-            String qrText = String.format("Bookfair-%d-%d-%s", reservation.getId(), stallId, userEmail);
-            Path qrDir = Paths.get(qrDirectory);
-            if (!Files.exists(qrDir)) {
-                Files.createDirectories(qrDir);
-            }
-            String qrFilename = "qr_" + reservation.getId() + ".png";
-            Path qrPath = qrDir.resolve(qrFilename);
-            QrUtil.generateQRCodeImage(qrText, qrPath.toString());
-            reservation.setQrCodeFilename(qrFilename);
-            reservationRepository.save(reservation);
-            return qrFilename;
-        } catch (Exception e) {
-            logger.error("Failed to generate QR code for reservation {}: {}", reservation.getId(), e.getMessage(), e);
-            throw new RuntimeException("Failed to generate QR code", e);
-        }
+    private String assignQrCode(Reservation reservation, Long stallId, String userEmail) {
+        String qrText = String.format("Bookfair-%d-%d-%s", reservation.getId(), stallId, userEmail);
+        String qrFilename = "qr_" + reservation.getId() + ".png";
+        reservation.setQrCodeFilename(qrFilename);
+        reservationMetrics.time(ReservationMetrics.STAGE_RESERVATION_UPDATE, () -> reservationRepository.save(reservation));
+        eventPublisher.publishEvent(new ReservationQrCodeEvent(reservation.getId(), qrText, qrFilename));
+        return qrFilename;
     }
 
     /**
-     * Save stall genres
+     * Save stall genres.
+     * Ownership is checked against one query for the user's stall IDs and all
+     * genre changes are written as a single JDBC batch.
      */
     @Transactional
     public void saveStallGenres(List<Map<String, Object>> stallGenresList, String userEmail) {
-        // Verify user owns the stalls by checking reservations
+        Map<Long, String> genresByStallId = new LinkedHashMap<>();
         for (Map<String, Object> stallGenreData : stallGenresList) {
             Object stallIdObj = stallGenreData.get("stallId");
             String genresStr = (String) stallGenreData.get("genres");
@@ -211,22 +275,25 @@ public class ReservationService {
                 continue;
             }
             
-            // Verify user has a reservation for this stall
-            boolean hasReservation = reservationRepository.findByUserEmail(userEmail).stream()
-                    .anyMatch(r -> r.getStall().getId().equals(stallId));
-            
-            if (!hasReservation) {
+            genresByStallId.put(stallId, genresStr);
+        }
+
+        if (genresByStallId.isEmpty()) {
+            return;
+        }
+
+        // Verify user has a reservation for every stall before touching any of them
+        Set<Long> ownedStallIds = new HashSet<>(reservationRepository.findStallIdsByUserEmail(userEmail));
+        for (Long stallId : genresByStallId.keySet()) {
+            if (!ownedStallIds.contains(stallId)) {
                 throw new BadRequestException("You don't have a reservation for stall " + stallId);
             }
-            
-            // Update stall genres
-            Stall stall = stallRepository.findById(stallId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Stall not found"));
-            stall.setGenres(genresStr);
-            stallRepository.save(stall);
         }
+
+        stallRepository.batchUpdateGenres(genresByStallId);
+        eventPublisher.publishEvent(StallsChangedEvent.of(genresByStallId.keySet()));
         
-        logger.info("Updated genres for {} stalls for user: {}", stallGenresList.size(), userEmail);
+        logger.info("Updated genres for {} stalls for user: {}", genresByStallId.size(), userEmail);
     }
 
     /**
@@ -0,0 +1,562 @@
+package com.example.bookfair.service;
+
+import com.example.bookfair.dto.StallCluster;
+import com.example.bookfair.dto.StallResponse;
+import com.example.bookfair.event.StallsChangedEvent;
+import com.example.bookfair.model.Stall;
+import com.example.bookfair.repository.StallRepository;
+import com.example.bookfair.util.GenreDictionary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * In-memory index over all stalls.
+ * Each stall's genres are held as a bitset of {@link GenreDictionary} IDs, and an inverted
+ * index (genre ID -> bitset of stall positions) plus size and availability bitsets answer
+ * searches without touching the database. A uniform grid over the stall coordinates
+ * answers map viewport queries by visiting only the cells that overlap the viewport.
+ *
+ * The index is an immutable snapshot swapped atomically on every change, so readers never
+ * see a half-built index. It is refreshed after each committed {@link StallsChangedEvent}.
+ * With several reservation-service instances, stall.index.periodic-refresh.enabled also
+ * rebuilds it periodically to pick up the other instances' changes; until then such a change
+ * is not visible here. The index only serves reads, and reservations are validated against
+ * the database, so that lag can't double-book a stall.
+ * Changes to existing stalls that stay in their grid cell (a reservation, new genres) are
+ * applied copy-on-write to the affected bitsets only; anything else rebuilds the snapshot.
+ */
+@Component
+public class StallIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(StallIndex.class);
+
+    @Autowired
+    private StallRepository stallRepository;
+
+    @Autowired
+    private GenreDictionary genreDictionary;
+
+    // Side length of a grid cell in map units; also the cluster size for zoomed-out viewports
+    @Value("${stall.index.grid-cell-size:200}")
+    private int gridCellSize;
+
+    // Only needed when other instances change stalls; a single instance sees every change as an event
+    @Value("${stall.index.periodic-refresh.enabled:false}")
+    private boolean periodicRefresh;
+
+    private volatile Snapshot snapshot = Snapshot.build(Collections.emptyList(), 1);
+
+    // False until the first full load succeeds; the scheduled refresh retries until then
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            reload();
+        } catch (Exception e) {
+            logger.warn("Failed to build stall index on startup, will retry on next refresh: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${stall.index.refresh-interval-ms:5000}",
+            initialDelayString = "${stall.index.refresh-interval-ms:5000}")
+    public void scheduledRefresh() {
+        if (loaded && !periodicRefresh) {
+            return;
+        }
+        try {
+            reload();
+        } catch (Exception e) {
+            logger.warn("Failed to refresh stall index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Apply committed stall changes. Partial changes only reload the affected rows.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public synchronized void onStallsChanged(StallsChangedEvent event) {
+        if (event.isFullReset()) {
+            reload();
+            return;
+        }
+
+        List<IndexedStall> changed = new ArrayList<>();
+        for (Stall stall : stallRepository.findAllById(event.getStallIds())) {
+            changed.add(toIndexedStall(stall));
+        }
+
+        Snapshot current = snapshot;
+        Snapshot updated = changed.size() == event.getStallIds().size() ? current.withUpdates(changed) : null;
+        if (updated == null) {
+            // Stalls were added, deleted or moved to another grid cell
+            Map<Long, IndexedStall> merged = new HashMap<>(current.size() * 2);
+            current.stalls().forEach(stall -> merged.put(stall.getId(), stall));
+            event.getStallIds().forEach(merged::remove);
+            changed.forEach(stall -> merged.put(stall.getId(), stall));
+            updated = Snapshot.build(merged.values(), gridCellSize);
+        }
+        snapshot = updated;
+    }
+
+    /**
+     * Rebuild the whole index from the database
+     */
+    public synchronized void reload() {
+        long start = System.nanoTime();
+        List<IndexedStall> stalls = new ArrayList<>();
+        for (Stall stall : stallRepository.findAll()) {
+            stalls.add(toIndexedStall(stall));
+        }
+        snapshot = Snapshot.build(stalls, gridCellSize);
+        loaded = true;
+        logger.debug("Stall index rebuilt - Stalls: {}, Genres: {}, Took: {} ms",
+                stalls.size(), genreDictionary.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Search stalls by genres, size and availability.
+     *
+     * @param genres    genre names (any case/spacing); empty means no genre filter
+     * @param matchAll  true to require every genre, false to match any of them
+     * @param size      SMALL/MEDIUM/LARGE, or null for any size
+     * @param available true for free stalls only, false for reserved only, null for both
+     * @param limit     maximum number of results, or 0 for no limit
+     */
+    public List<IndexedStall> search(List<String> genres, boolean matchAll, String size, Boolean available, int limit) {
+        Snapshot current = snapshot;
+        BitSet matches = new BitSet(current.stalls.length);
+        matches.set(0, current.stalls.length);
+
+        List<String> genreNames = GenreDictionary.splitAll(genres);
+        if (!genreNames.isEmpty()) {
+            BitSet genreMatches = matchAll ? matches : new BitSet(current.stalls.length);
+            for (String genre : genreNames) {
+                int genreId = genreDictionary.lookup(genre);
+                BitSet stallsWithGenre = genreId >= 0 && genreId < current.byGenre.length
+                        ? current.byGenre[genreId]
+                        : null;
+                if (matchAll) {
+                    if (stallsWithGenre == null) {
+                        return Collections.emptyList();
+                    }
+                    genreMatches.and(stallsWithGenre);
+                } else if (stallsWithGenre != null) {
+                    genreMatches.or(stallsWithGenre);
+                }
+            }
+            matches.and(genreMatches);
+        }
+
+        if (size != null && !size.isBlank()) {
+            BitSet stallsWithSize = current.bySize.get(size.trim().toUpperCase(Locale.ROOT));
+            if (stallsWithSize == null) {
+                return Collections.emptyList();
+            }
+            matches.and(stallsWithSize);
+        }
+
+        if (available != null) {
+            if (available) {
+                matches.and(current.available);
+            } else {
+                matches.andNot(current.available);
+            }
+        }
+
+        int max = limit > 0 ? limit : Integer.MAX_VALUE;
+        List<IndexedStall> results = new ArrayList<>(Math.min(matches.cardinality(), max));
+        for (int i = matches.nextSetBit(0); i >= 0 && results.size() < max; i = matches.nextSetBit(i + 1)) {
+            results.add(current.stalls[i]);
+        }
+        return results;
+    }
+
+    /**
+     * Stalls whose position lies inside the bounding box (inclusive), ordered by ID
+     */
+    public List<IndexedStall> inViewport(int minX, int minY, int maxX, int maxY) {
+        Snapshot current = snapshot;
+        BitSet matches = new BitSet(current.stalls.length);
+        current.forEachCellInViewport(minX, minY, maxX, maxY, cell -> {
+            for (int position : cell) {
+                IndexedStall stall = current.stalls[position];
+                if (stall.x >= minX && stall.x <= maxX && stall.y >= minY && stall.y <= maxY) {
+                    matches.set(position);
+                }
+            }
+        });
+
+        List<IndexedStall> results = new ArrayList<>(matches.cardinality());
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            results.add(current.stalls[i]);
+        }
+        return results;
+    }
+
+    /**
+     * Per grid cell stall and availability counts inside the bounding box (inclusive),
+     * for zoomed-out map views where individual stalls are not rendered
+     */
+    public List<StallCluster> clustersInViewport(int minX, int minY, int maxX, int maxY) {
+        Snapshot current = snapshot;
+        List<StallCluster> clusters = new ArrayList<>();
+        current.forEachCellInViewport(minX, minY, maxX, maxY, cell -> {
+            int count = 0;
+            int available = 0;
+            long sumX = 0;
+            long sumY = 0;
+            for (int position : cell) {
+                IndexedStall stall = current.stalls[position];
+                if (stall.x >= minX && stall.x <= maxX && stall.y >= minY && stall.y <= maxY) {
+                    count++;
+                    if (!stall.reserved) {
+                        available++;
+                    }
+                    sumX += stall.x;
+                    sumY += stall.y;
+                }
+            }
+            if (count > 0) {
+                clusters.add(new StallCluster((int) (sumX / count), (int) (sumY / count), count, available));
+            }
+        });
+        return clusters;
+    }
+
+    private IndexedStall toIndexedStall(Stall stall) {
+        return new IndexedStall(
+                stall.getId(),
+                stall.getName(),
+                stall.getSize(),
+                stall.isReserved(),
+                stall.getX(),
+                stall.getY(),
+                stall.getGenres() != null ? stall.getGenres() : "",
+                genreDictionary.encode(stall.getGenres())
+        );
+    }
+
+    /**
+     * Immutable point-in-time view of all stalls and their bitset indexes
+     */
+    public static final class Snapshot {
+        // Stalls ordered by ID; a stall's array position is its bit in every index bitset
+        private final IndexedStall[] stalls;
+        // Stall ID -> array position; positions only change on a full rebuild
+        private final Map<Long, Integer> positions;
+        private final BitSet available;
+        private final Map<String, BitSet> bySize;
+        private final BitSet[] byGenre;
+        // Uniform grid: cell key -> stall positions in that cell
+        private final int cellSize;
+        private final Map<Long, int[]> grid;
+
+        private Snapshot(IndexedStall[] stalls, Map<Long, Integer> positions, BitSet available,
+                         Map<String, BitSet> bySize, BitSet[] byGenre, int cellSize, Map<Long, int[]> grid) {
+            this.stalls = stalls;
+            this.positions = positions;
+            this.available = available;
+            this.bySize = bySize;
+            this.byGenre = byGenre;
+            this.cellSize = cellSize;
+            this.grid = grid;
+        }
+
+        static Snapshot build(Collection<IndexedStall> source, int cellSize) {
+            IndexedStall[] stalls = source.toArray(new IndexedStall[0]);
+            Arrays.sort(stalls, Comparator.comparing(IndexedStall::getId));
+
+            Map<Long, Integer> positions = new HashMap<>(stalls.length * 2);
+            BitSet available = new BitSet(stalls.length);
+            Map<String, BitSet> bySize = new HashMap<>();
+            List<BitSet> byGenre = new ArrayList<>();
+            int gridCellSize = Math.max(cellSize, 1);
+            Map<Long, List<Integer>> cells = new HashMap<>();
+
+            for (int position = 0; position < stalls.length; position++) {
+                IndexedStall stall = stalls[position];
+                positions.put(stall.getId(), position);
+                if (!stall.isReserved()) {
+                    available.set(position);
+                }
+                String sizeKey = sizeKey(stall);
+                if (sizeKey != null) {
+                    bySize.computeIfAbsent(sizeKey, k -> new BitSet()).set(position);
+                }
+                BitSet genreBits = BitSet.valueOf(stall.genreWords);
+                for (int genreId = genreBits.nextSetBit(0); genreId >= 0; genreId = genreBits.nextSetBit(genreId + 1)) {
+                    while (byGenre.size() <= genreId) {
+                        byGenre.add(new BitSet());
+                    }
+                    byGenre.get(genreId).set(position);
+                }
+                cells.computeIfAbsent(cellKeyOf(stall, gridCellSize), k -> new ArrayList<>()).add(position);
+            }
+
+            Map<Long, int[]> grid = new HashMap<>(cells.size() * 2);
+            cells.forEach((key, cellPositions) -> grid.put(key, cellPositions.stream().mapToInt(Integer::intValue).toArray()));
+
+            return new Snapshot(stalls, Collections.unmodifiableMap(positions), available,
+                    Collections.unmodifiableMap(bySize), byGenre.toArray(new BitSet[0]),
+                    gridCellSize, Collections.unmodifiableMap(grid));
+        }
+
+        /**
+         * Copy of this snapshot with the given stalls replaced in place, sharing every
+         * structure the change does not touch. Returns null if a stall is not in this
+         * snapshot or moved to another grid cell; the caller then rebuilds.
+         */
+        Snapshot withUpdates(Collection<IndexedStall> updates) {
+            IndexedStall[] newStalls = stalls.clone();
+            BitSet newAvailable = available;
+            Map<String, BitSet> newBySize = bySize;
+            BitSet[] newByGenre = byGenre;
+            // Bitsets already copied for this update, so each is copied at most once
+            Set<BitSet> copied = Collections.newSetFromMap(new IdentityHashMap<>());
+
+            for (IndexedStall update : updates) {
+                Integer position = positions.get(update.getId());
+                if (position == null) {
+                    return null;
+                }
+                IndexedStall old = stalls[position];
+                if (cellKeyOf(old, cellSize) != cellKeyOf(update, cellSize)) {
+                    return null;
+                }
+                newStalls[position] = update;
+
+                if (old.isReserved() != update.isReserved()) {
+                    if (newAvailable == available) {
+                        newAvailable = (BitSet) available.clone();
+                    }
+                    newAvailable.set(position, !update.isReserved());
+                }
+
+                String oldSize = sizeKey(old);
+                String newSize = sizeKey(update);
+                if (!Objects.equals(oldSize, newSize)) {
+                    if (newBySize == bySize) {
+                        newBySize = new HashMap<>(bySize);
+                    }
+                    if (oldSize != null) {
+                        copyOnWrite(newBySize, oldSize, copied).clear(position);
+                    }
+                    if (newSize != null) {
+                        copyOnWrite(newBySize, newSize, copied).set(position);
+                    }
+                }
+
+                BitSet oldGenres = BitSet.valueOf(old.genreWords);
+                BitSet newGenres = BitSet.valueOf(update.genreWords);
+                BitSet changedGenres = (BitSet) oldGenres.clone();
+                changedGenres.xor(newGenres);
+                if (!changedGenres.isEmpty()) {
+                    if (newByGenre == byGenre) {
+                        newByGenre = Arrays.copyOf(byGenre, Math.max(byGenre.length, newGenres.length()));
+                    } else if (newByGenre.length < newGenres.length()) {
+                        newByGenre = Arrays.copyOf(newByGenre, newGenres.length());
+                    }
+                    for (int genreId = changedGenres.nextSetBit(0); genreId >= 0;
+                         genreId = changedGenres.nextSetBit(genreId + 1)) {
+                        BitSet stallsWithGenre = newByGenre[genreId];
+                        if (stallsWithGenre == null || !copied.contains(stallsWithGenre)) {
+                            stallsWithGenre = stallsWithGenre != null ? (BitSet) stallsWithGenre.clone() : new BitSet();
+                            copied.add(stallsWithGenre);
+                            newByGenre[genreId] = stallsWithGenre;
+                        }
+                        stallsWithGenre.set(position, newGenres.get(genreId));
+                    }
+                }
+            }
+
+            if (newBySize != bySize) {
+                newBySize = Collections.unmodifiableMap(newBySize);
+            }
+            return new Snapshot(newStalls, positions, newAvailable, newBySize, newByGenre, cellSize, grid);
+        }
+
+        private static BitSet copyOnWrite(Map<String, BitSet> bySize, String size, Set<BitSet> copied) {
+            BitSet current = bySize.get(size);
+            if (current != null && copied.contains(current)) {
+                return current;
+            }
+            BitSet copy = current != null ? (BitSet) current.clone() : new BitSet();
+            copied.add(copy);
+            bySize.put(size, copy);
+            return copy;
+        }
+
+        private static String sizeKey(IndexedStall stall) {
+            return stall.getSize() != null ? stall.getSize().toUpperCase(Locale.ROOT) : null;
+        }
+
+        private static long cellKeyOf(IndexedStall stall, int cellSize) {
+            return cellKey(Math.floorDiv(stall.x, cellSize), Math.floorDiv(stall.y, cellSize));
+        }
+
+        private static long cellKey(int cellX, int cellY) {
+            return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+        }
+
+        /**
+         * Visit the stall positions of every occupied grid cell overlapping the bounding box.
+         * Falls back to scanning occupied cells when the box spans more cells than are occupied.
+         */
+        void forEachCellInViewport(int minX, int minY, int maxX, int maxY, Consumer<int[]> action) {
+            int minCellX = Math.floorDiv(minX, cellSize);
+            int minCellY = Math.floorDiv(minY, cellSize);
+            int maxCellX = Math.floorDiv(maxX, cellSize);
+            int maxCellY = Math.floorDiv(maxY, cellSize);
+            long spannedCells = ((long) maxCellX - minCellX + 1) * ((long) maxCellY - minCellY + 1);
+
+            if (spannedCells > grid.size()) {
+                grid.forEach((key, positions) -> {
+                    int cellX = (int) (key >> 32);
+                    int cellY = (int) (long) key;
+                    if (cellX >= minCellX && cellX <= maxCellX && cellY >= minCellY && cellY <= maxCellY) {
+                        action.accept(positions);
+                    }
+                });
+                return;
+            }
+
+            for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+                for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+                    int[] positions = grid.get(cellKey(cellX, cellY));
+                    if (positions != null) {
+                        action.accept(positions);
+                    }
+                }
+            }
+        }
+
+        public int cellSize() {
+            return cellSize;
+        }
+
+        public int size() {
+            return stalls.length;
+        }
+
+        public IndexedStall get(Long stallId) {
+            Integer position = positions.get(stallId);
+            return position != null ? stalls[position] : null;
+        }
+
+        /**
+         * Stalls ordered by ID. The returned list must not be modified.
+         */
+        public List<IndexedStall> stalls() {
+            return Arrays.asList(stalls);
+        }
+    }
+
+    /**
+     * Read-only copy of a stall as held by the index
+     */
+    public static final class IndexedStall {
+        private final Long id;
+        private final String name;
+        private final String size;
+        private final boolean reserved;
+        private final int x;
+        private final int y;
+        private final String genres;
+        // Genre IDs as a compact bitset (one long covers 64 genres)
+        private final long[] genreWords;
+
+        IndexedStall(Long id, String name, String size, boolean reserved, int x, int y,
+                     String genres, BitSet genreBits) {
+            this.id = id;
+            this.name = name;
+            this.size = size;
+            this.reserved = reserved;
+            this.x = x;
+            this.y = y;
+            this.genres = genres;
+            this.genreWords = genreBits.toLongArray();
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getSize() {
+            return size;
+        }
+
+        public boolean isReserved() {
+            return reserved;
+        }
+
+        public int getX() {
+            return x;
+        }
+
+        public int getY() {
+            return y;
+        }
+
+        public String getGenres() {
+            return genres;
+        }
+
+        public int genreCount() {
+            int count = 0;
+            for (long word : genreWords) {
+                count += Long.bitCount(word);
+            }
+            return count;
+        }
+
+        /**
+         * Number of genres this stall shares with the given genre words, without allocating
+         */
+        public int sharedGenres(long[] otherGenreWords) {
+            int shared = 0;
+            int words = Math.min(genreWords.length, otherGenreWords.length);
+            for (int i = 0; i < words; i++) {
+                shared += Long.bitCount(genreWords[i] & otherGenreWords[i]);
+            }
+            return shared;
+        }
+
+        public StallResponse toStallResponse() {
+            return new StallResponse(id, name, size, reserved, x, y, genres);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.bookfair.service;
+
+import com.example.bookfair.dto.StallRecommendation;
+import com.example.bookfair.dto.UserResponse;
+import com.example.bookfair.util.GenreDictionary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Recommends stalls by genre affinity, map proximity and availability.
+ * Scoring runs entirely against the {@link StallIndex} snapshot: genre overlap is a
+ * popcount over the stall's genre bitset, and the top-k are kept in a bounded min-heap,
+ * so a request costs O(stalls * log k) with no database access.
+ */
+@Service
+public class StallRecommendationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StallRecommendationService.class);
+
+    private static final int MAX_RESULTS = 50;
+
+    @Autowired
+    private StallIndex stallIndex;
+
+    @Autowired
+    private GenreDictionary genreDictionary;
+
+    @Autowired
+    private UserDirectory userDirectory;
+
+    @Value("${recommendation.weight.genre:0.6}")
+    private double genreWeight;
+
+    @Value("${recommendation.weight.proximity:0.3}")
+    private double proximityWeight;
+
+    @Value("${recommendation.weight.availability:0.1}")
+    private double availabilityWeight;
+
+    // Distance (in map units) at which the proximity score drops to one half
+    @Value("${recommendation.distance-scale:200}")
+    private double distanceScale;
+
+    /**
+     * Recommend up to k stalls.
+     *
+     * @param userEmail authenticated user whose registered genres are used, or null
+     * @param genres    explicit genres; when given they take precedence over the user's genres
+     * @param x         map X coordinate to rank nearby stalls higher, or null
+     * @param y         map Y coordinate to rank nearby stalls higher, or null
+     * @param available true for free stalls only, false for reserved only, null for both
+     * @param k         number of stalls to return
+     */
+    public List<StallRecommendation> recommend(String userEmail, List<String> genres, Integer x, Integer y,
+                                               Boolean available, int k) {
+        int limit = Math.max(1, Math.min(k, MAX_RESULTS));
+        List<String> preferredGenres = genres != null && !genres.isEmpty() ? genres : userGenres(userEmail);
+
+        BitSet preferredBits = genreDictionary.encodeKnown(preferredGenres);
+        long[] preferredWords = preferredBits.toLongArray();
+        int preferredCount = preferredBits.cardinality();
+        boolean requireGenreMatch = !GenreDictionary.splitAll(preferredGenres).isEmpty();
+        boolean hasOrigin = x != null && y != null;
+
+        // Min-heap on score: the root is the weakest of the current top-k
+        PriorityQueue<Candidate> topK = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(c -> c.score));
+
+        for (StallIndex.IndexedStall stall : stallIndex.snapshot().stalls()) {
+            if (available != null && available == stall.isReserved()) {
+                continue;
+            }
+
+            int shared = preferredCount > 0 ? stall.sharedGenres(preferredWords) : 0;
+            if (requireGenreMatch && shared == 0) {
+                continue;
+            }
+
+            double score = 0;
+            if (preferredCount > 0) {
+                score += genreWeight * shared / preferredCount;
+            }
+            double distance = -1;
+            if (hasOrigin) {
+                double dx = stall.getX() - x;
+                double dy = stall.getY() - y;
+                distance = Math.sqrt(dx * dx + dy * dy);
+                score += proximityWeight * distanceScale / (distanceScale + distance);
+            }
+            if (!stall.isReserved()) {
+                score += availabilityWeight;
+            }
+
+            if (topK.size() < limit) {
+                topK.add(new Candidate(stall, score, distance));
+            } else if (score > topK.peek().score) {
+                topK.poll();
+                topK.add(new Candidate(stall, score, distance));
+            }
+        }
+
+        List<Candidate> ranked = new ArrayList<>(topK);
+        ranked.sort(Comparator.comparingDouble((Candidate c) -> c.score).reversed()
+                .thenComparing(c -> c.stall.getId()));
+
+        List<StallRecommendation> recommendations = new ArrayList<>(ranked.size());
+        for (Candidate candidate : ranked) {
+            recommendations.add(new StallRecommendation(
+                    candidate.stall.toStallResponse(),
+                    Math.round(candidate.score * 1000) / 1000.0,
+                    matchedGenres(candidate.stall, preferredBits),
+                    candidate.distance >= 0 ? Math.round(candidate.distance * 10) / 10.0 : null
+            ));
+        }
+        return recommendations;
+    }
+
+    private List<String> userGenres(String userEmail) {
+        if (userEmail == null) {
+            return Collections.emptyList();
+        }
+        try {
+            UserResponse user = userDirectory.getByEmail(userEmail);
+            if (user == null || user.getGenres() == null || user.getGenres().isBlank()) {
+                return Collections.emptyList();
+            }
+            return List.of(user.getGenres());
+        } catch (Exception e) {
+            logger.warn("Failed to fetch genres for user {}, recommending without genres: {}", userEmail, e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    private List<String> matchedGenres(StallIndex.IndexedStall stall, BitSet preferredBits) {
+        List<String> matched = new ArrayList<>();
+        for (String genre : GenreDictionary.splitAll(List.of(stall.getGenres()))) {
+            int id = genreDictionary.lookup(genre);
+            if (id >= 0 && preferredBits.get(id)) {
+                matched.add(genre.trim());
+            }
+        }
+        return matched;
+    }
+
+    private static final class Candidate {
+        private final StallIndex.IndexedStall stall;
+        private final double score;
+        private final double distance;
+
+        private Candidate(StallIndex.IndexedStall stall, double score, double distance) {
+            this.stall = stall;
+            this.score = score;
+            this.distance = distance;
+        }
+    }
+}
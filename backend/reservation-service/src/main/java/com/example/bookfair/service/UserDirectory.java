@@ -0,0 +1,251 @@
+package com.example.bookfair.service;
+
+import com.example.bookfair.client.UserClient;
+import com.example.bookfair.dto.UserResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of users from user-service, keyed by id and by lower-cased email.
+ *
+ * Found users are cached for user.directory.ttl-ms, unknown users (404) for the shorter
+ * negative-ttl-ms. Concurrent misses for the same key share one call. user-service
+ * invalidates entries when a user's role changes or the user is deleted, see
+ * {@link #invalidate(Long, String)}. A load that was in flight when an invalidation arrived
+ * may have read the old user, so what it cached is dropped again once it completes.
+ *
+ * Every user seen is also kept as a last-known-good copy; when user-service is down, slow,
+ * or its circuit breaker is open, that copy is returned instead of failing the caller.
+ * Client errors other than 404 are never masked.
+ */
+@Service
+public class UserDirectory {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserDirectory.class);
+
+    @Autowired
+    private UserClient userClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${user.directory.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${user.directory.ttl-ms:300000}")
+    private long ttlMs;
+
+    @Value("${user.directory.negative-ttl-ms:30000}")
+    private long negativeTtlMs;
+
+    // Optional.empty() marks a user that does not exist
+    private Cache<String, Optional<UserResponse>> byEmail;
+    private Cache<Long, Optional<UserResponse>> byId;
+
+    private Map<String, UserResponse> lastKnownByEmail;
+    private Map<Long, UserResponse> lastKnownById;
+
+    // Bumped by every invalidation; a load that sees it change discards what it cached
+    private final AtomicLong generation = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        byEmail = newCache();
+        byId = newCache();
+        lastKnownByEmail = lruMap();
+        lastKnownById = lruMap();
+        CaffeineCacheMetrics.monitor(meterRegistry, byEmail, "user.directory.by-email");
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "user.directory.by-id");
+    }
+
+    /**
+     * Get a user by email, or null if no such user exists
+     */
+    public UserResponse getByEmail(String email) {
+        String emailKey = emailKey(email);
+        try {
+            long loadGeneration = generation.get();
+            Optional<UserResponse> user = byEmail.get(emailKey, key -> loadByEmail(key, loadGeneration));
+            if (generation.get() != loadGeneration) {
+                byEmail.asMap().remove(emailKey, user);
+            }
+            return user.orElse(null);
+        } catch (RuntimeException e) {
+            return fallback(lastKnownByEmail.get(emailKey), "email " + email, e);
+        }
+    }
+
+    /**
+     * Get a user by id, or null if no such user exists
+     */
+    public UserResponse getById(Long id) {
+        try {
+            long loadGeneration = generation.get();
+            Optional<UserResponse> user = byId.get(id, key -> loadById(key, loadGeneration));
+            if (generation.get() != loadGeneration) {
+                byId.asMap().remove(id, user);
+            }
+            return user.orElse(null);
+        } catch (RuntimeException e) {
+            return fallback(lastKnownById.get(id), "id " + id, e);
+        }
+    }
+
+    /**
+     * Drop a user from the cache (and the last-known copies) by id and/or email
+     */
+    public void invalidate(Long id, String email) {
+        // Bump before removing, so a load that caches after the removal sees the change
+        generation.incrementAndGet();
+        email = emailKey(email);
+        if (id == null && email != null) {
+            Optional<UserResponse> cached = byEmail.getIfPresent(email);
+            UserResponse user = cached != null && cached.isPresent() ? cached.get() : lastKnownByEmail.get(email);
+            id = user != null ? user.getId() : null;
+        }
+        if (email == null && id != null) {
+            Optional<UserResponse> cached = byId.getIfPresent(id);
+            UserResponse user = cached != null && cached.isPresent() ? cached.get() : lastKnownById.get(id);
+            email = user != null ? emailKey(user.getEmail()) : null;
+        }
+        if (id != null) {
+            byId.invalidate(id);
+            lastKnownById.remove(id);
+        }
+        if (email != null) {
+            byEmail.invalidate(email);
+            lastKnownByEmail.remove(email);
+        }
+    }
+
+    // A lookup by either key also fills the other cache (never the one being loaded)
+    private Optional<UserResponse> loadByEmail(String email, long loadGeneration) {
+        Optional<UserResponse> user = fetch(() -> userClient.getUserByEmail(email));
+        user.ifPresent(found -> {
+            remember(found);
+            if (found.getId() != null) {
+                byId.put(found.getId(), user);
+            }
+            discardIfInvalidated(found, user, loadGeneration, byId, found.getId());
+        });
+        return user;
+    }
+
+    private Optional<UserResponse> loadById(Long id, long loadGeneration) {
+        Optional<UserResponse> user = fetch(() -> userClient.getUserById(id));
+        user.ifPresent(found -> {
+            remember(found);
+            String emailKey = emailKey(found.getEmail());
+            if (emailKey != null) {
+                byEmail.put(emailKey, user);
+            }
+            discardIfInvalidated(found, user, loadGeneration, byEmail, emailKey);
+        });
+        return user;
+    }
+
+    // Undo the other-key fill and last-known copies if an invalidation raced the load.
+    // The cache being loaded is checked by the caller once the load has completed.
+    private <K> void discardIfInvalidated(UserResponse found, Optional<UserResponse> user, long loadGeneration,
+                                          Cache<K, Optional<UserResponse>> otherCache, K otherKey) {
+        if (generation.get() == loadGeneration) {
+            return;
+        }
+        if (otherKey != null) {
+            otherCache.asMap().remove(otherKey, user);
+        }
+        forget(found);
+    }
+
+    private Optional<UserResponse> fetch(Supplier<UserResponse> call) {
+        try {
+            return Optional.ofNullable(call.get());
+        } catch (FeignException.NotFound e) {
+            return Optional.empty();
+        }
+    }
+
+    private void remember(UserResponse user) {
+        if (user.getEmail() != null) {
+            lastKnownByEmail.put(emailKey(user.getEmail()), user);
+        }
+        if (user.getId() != null) {
+            lastKnownById.put(user.getId(), user);
+        }
+    }
+
+    private void forget(UserResponse user) {
+        if (user.getEmail() != null) {
+            lastKnownByEmail.remove(emailKey(user.getEmail()), user);
+        }
+        if (user.getId() != null) {
+            lastKnownById.remove(user.getId(), user);
+        }
+    }
+
+    // Emails are case-insensitive; user-service keys its own cache the same way
+    private static String emailKey(String email) {
+        return email != null ? email.toLowerCase(Locale.ROOT) : null;
+    }
+
+    private UserResponse fallback(UserResponse lastKnown, String key, RuntimeException e) {
+        if (e instanceof FeignException.FeignClientException || lastKnown == null) {
+            throw e;
+        }
+        logger.warn("user-service unavailable, using last known data for user {}: {}", key, e.getMessage());
+        return lastKnown;
+    }
+
+    private <K> Cache<K, Optional<UserResponse>> newCache() {
+        return Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<K, Optional<UserResponse>>() {
+                    @Override
+                    public long expireAfterCreate(K key, Optional<UserResponse> value, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(value.isPresent() ? ttlMs : negativeTtlMs);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(K key, Optional<UserResponse> value, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(K key, Optional<UserResponse> value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    private <K> Map<K, UserResponse> lruMap() {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, UserResponse> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.bookfair.util;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary of genre names to small integer IDs.
+ * Genres are stored as comma-separated strings on stalls and users; this class
+ * normalizes each name ("  Children's Books" -> "children's books") and assigns it
+ * a stable ID for the lifetime of the process, so genre sets can be held as bitsets.
+ *
+ * The dictionary is deliberately not persisted: IDs are only bit positions inside this
+ * process's {@link com.example.bookfair.service.StallIndex}, which is rebuilt from the genre
+ * strings on startup, and no bitset is ever stored or sent to another instance.
+ */
+@Component
+public class GenreDictionary {
+
+    private final Map<String, Integer> idsByKey = new ConcurrentHashMap<>();
+    private final List<String> namesById = new ArrayList<>();
+
+    /**
+     * Normalize a genre name for lookups (trimmed, lower-case, single spaces)
+     */
+    public static String normalize(String genre) {
+        if (genre == null) {
+            return "";
+        }
+        return genre.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Get the ID of a genre, registering it if it has not been seen before
+     */
+    public int idOf(String genre) {
+        String key = normalize(genre);
+        Integer id = idsByKey.get(key);
+        if (id != null) {
+            return id;
+        }
+        synchronized (namesById) {
+            return idsByKey.computeIfAbsent(key, k -> {
+                namesById.add(genre.trim());
+                return namesById.size() - 1;
+            });
+        }
+    }
+
+    /**
+     * Get the ID of a known genre without registering it, or -1 if unknown
+     */
+    public int lookup(String genre) {
+        Integer id = idsByKey.get(normalize(genre));
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Get the display name of a genre ID
+     */
+    public String nameOf(int id) {
+        synchronized (namesById) {
+            return namesById.get(id);
+        }
+    }
+
+    public int size() {
+        return idsByKey.size();
+    }
+
+    /**
+     * Encode a comma-separated genre string as a bitset, registering new genres
+     */
+    public BitSet encode(String commaSeparatedGenres) {
+        BitSet bits = new BitSet();
+        if (commaSeparatedGenres == null || commaSeparatedGenres.isBlank()) {
+            return bits;
+        }
+        for (String genre : commaSeparatedGenres.split(",")) {
+            if (!genre.isBlank()) {
+                bits.set(idOf(genre));
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Encode genres as a bitset of already known IDs only. Used for query-side genre
+     * lists (search filters, user preferences) so they never grow the dictionary;
+     * an unknown genre cannot match any stall anyway.
+     */
+    public BitSet encodeKnown(Collection<String> genres) {
+        BitSet bits = new BitSet();
+        for (String genre : splitAll(genres)) {
+            int id = lookup(genre);
+            if (id >= 0) {
+                bits.set(id);
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Expand values that may themselves be comma-separated ("a,b", "c") into single genres
+     */
+    public static List<String> splitAll(Collection<String> values) {
+        List<String> genres = new ArrayList<>();
+        if (values == null) {
+            return genres;
+        }
+        for (String value : values) {
+            if (value == null) {
+                continue;
+            }
+            for (String genre : value.split(",")) {
+                if (!genre.isBlank()) {
+                    genres.add(genre);
+                }
+            }
+        }
+        return genres;
+    }
+}
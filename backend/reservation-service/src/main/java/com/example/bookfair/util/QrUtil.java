@@ -15,6 +15,13 @@ import java.util.Map;
 
 public class QrUtil {
     public static String generateQRCodeImage(String text, String filePath) throws Exception {
+        return writeQRCodeImage(renderQRCode(text), filePath);
+    }
+
+    /**
+     * Encode text as a 300x300 QR code matrix (CPU only, no I/O)
+     */
+    public static BitMatrix renderQRCode(String text) throws Exception {
         try {
             int width = 300;
             int height = 300;
@@ -24,20 +31,24 @@ public class QrUtil {
             hints.put(EncodeHintType.CHARACTER_SET, "UTF-8");
             hints.put(EncodeHintType.MARGIN, 1);
             
-            BitMatrix bitMatrix = new MultiFormatWriter().encode(
+            return new MultiFormatWriter().encode(
                     text,
                     BarcodeFormat.QR_CODE,
                     width,
                     height,
                     hints
             );
-            
-            Path path = Paths.get(filePath);
-            MatrixToImageWriter.writeToPath(bitMatrix, "PNG", path);
-            
-            return path.toString();
         } catch (WriterException e) {
             throw new Exception("Failed to generate QR code: " + e.getMessage());
         }
     }
+
+    /**
+     * Write a QR code matrix to a PNG file
+     */
+    public static String writeQRCodeImage(BitMatrix bitMatrix, String filePath) throws Exception {
+        Path path = Paths.get(filePath);
+        MatrixToImageWriter.writeToPath(bitMatrix, "PNG", path);
+        return path.toString();
+    }
 }
@@ -0,0 +1,135 @@
+package com.example.bookfair.config;
+
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Target;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResilienceCapabilityTest {
+
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    private ResilienceCapability capability;
+
+    @BeforeEach
+    void setUp() {
+        ResilienceConfig config = new ResilienceConfig();
+        ReflectionTestUtils.setField(config, "failureRateThreshold", 50f);
+        ReflectionTestUtils.setField(config, "slowCallDurationMs", 3000L);
+        ReflectionTestUtils.setField(config, "slidingWindowSize", 4);
+        ReflectionTestUtils.setField(config, "minimumCalls", 4);
+        ReflectionTestUtils.setField(config, "openDurationMs", 60000L);
+        ReflectionTestUtils.setField(config, "halfOpenCalls", 1);
+        ReflectionTestUtils.setField(config, "userServiceMaxConcurrentCalls", 20);
+        ReflectionTestUtils.setField(config, "emailServiceMaxConcurrentCalls", 1);
+        ReflectionTestUtils.setField(config, "bulkheadMaxWaitMs", 0L);
+
+        circuitBreakerRegistry = config.circuitBreakerRegistry();
+        capability = new ResilienceCapability(circuitBreakerRegistry, config.bulkheadRegistry());
+    }
+
+    @Test
+    void testEnrich_ServerErrorsOpenTheBreaker() throws Exception {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        Client client = capability.enrich((Client) (request, options) -> {
+            calls.incrementAndGet();
+            return response(request, 503);
+        });
+
+        // When - minimumCalls failed calls
+        for (int i = 0; i < 4; i++) {
+            assertEquals(503, client.execute(request("user-service"), new Request.Options()).status());
+        }
+
+        // Then - the next call fails fast without reaching user-service
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreakerRegistry.circuitBreaker("user-service").getState());
+        assertThrows(CallNotPermittedException.class,
+                () -> client.execute(request("user-service"), new Request.Options()));
+        assertEquals(4, calls.get());
+
+        // Other services have their own breaker
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreakerRegistry.circuitBreaker("email-service").getState());
+    }
+
+    @Test
+    void testEnrich_ClientErrorsDoNotOpenTheBreaker() throws Exception {
+        // Given
+        Client client = capability.enrich((Client) (request, options) -> response(request, 404));
+
+        // When
+        for (int i = 0; i < 8; i++) {
+            client.execute(request("user-service"), new Request.Options());
+        }
+
+        // Then
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreakerRegistry.circuitBreaker("user-service").getState());
+    }
+
+    @Test
+    void testEnrich_FullBulkheadRejectsCalls() throws Exception {
+        // Given - one email-service call holding the only bulkhead slot
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Client client = capability.enrich((Client) (request, options) -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return response(request, 200);
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Response> inFlight = executor.submit(
+                    () -> client.execute(request("email-service"), new Request.Options()));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // When / Then
+            assertThrows(BulkheadFullException.class,
+                    () -> client.execute(request("email-service"), new Request.Options()));
+
+            release.countDown();
+            assertEquals(200, inFlight.get(5, TimeUnit.SECONDS).status());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private Request request(String service) {
+        RequestTemplate template = new RequestTemplate();
+        template.feignTarget(new Target.HardCodedTarget<>(Object.class, service, "http://" + service));
+        return Request.create(Request.HttpMethod.GET, "http://" + service + "/api/test",
+                Collections.emptyMap(), null, StandardCharsets.UTF_8, template);
+    }
+
+    private Response response(Request request, int status) {
+        return Response.builder()
+                .request(request)
+                .status(status)
+                .headers(Collections.emptyMap())
+                .build();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.bookfair.controller;
+
+import com.example.bookfair.service.UserDirectory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class AdminControllerTest {
+
+    @Mock
+    private UserDirectory userDirectory;
+
+    @InjectMocks
+    private AdminController adminController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(adminController).build();
+    }
+
+    @Test
+    void testInvalidateUserCache_ByIdAndEmail() throws Exception {
+        mockMvc.perform(post("/api/admin/user-cache-invalidations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\": 7, \"email\": \"vendor@example.com\"}"))
+                .andExpect(status().isOk());
+
+        verify(userDirectory).invalidate(7L, "vendor@example.com");
+    }
+
+    @Test
+    void testInvalidateUserCache_ByIdOnly() throws Exception {
+        mockMvc.perform(post("/api/admin/user-cache-invalidations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\": 7}"))
+                .andExpect(status().isOk());
+
+        verify(userDirectory).invalidate(7L, null);
+    }
+
+    @Test
+    void testInvalidateUserCache_MissingKeysIsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/admin/user-cache-invalidations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userDirectory);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.bookfair.integration;
+
+import com.example.bookfair.model.Stall;
+import com.example.bookfair.repository.MapLayoutRepository;
+import com.example.bookfair.repository.ReservationRepository;
+import com.example.bookfair.repository.StallRepository;
+import com.example.bookfair.security.JwtUtil;
+import com.example.bookfair.support.QueryBudget;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MapLayoutQueryBudgetTest {
+
+    private static final int EXISTING_STALLS = 10;
+    private static final int NEW_STALLS = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StallRepository stallRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private MapLayoutRepository mapLayoutRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        reservationRepository.deleteAll();
+        mapLayoutRepository.deleteAll();
+        stallRepository.deleteAll();
+        for (int i = 0; i < EXISTING_STALLS; i++) {
+            Stall stall = new Stall();
+            stall.setName("A" + i);
+            stall.setSize("SMALL");
+            stallRepository.save(stall);
+        }
+    }
+
+    @Test
+    void testSaveMapLayout_ExistingStallsLookedUpOnce() throws Exception {
+        // Given - every existing stall moves and as many new stalls are added
+        List<Map<String, Object>> stalls = new ArrayList<>();
+        for (int i = 0; i < EXISTING_STALLS; i++) {
+            stalls.add(Map.of("stallId", "A" + i, "size", "small", "x", 100 + i, "y", 50));
+        }
+        for (int i = 0; i < NEW_STALLS; i++) {
+            stalls.add(Map.of("stallId", "B" + i, "size", "medium", "x", i, "y", 300));
+        }
+        String body = objectMapper.writeValueAsString(Map.of("halls", List.of(Map.of("name", "Hall A", "stalls", stalls))));
+        String token = jwtUtil.generateToken("admin@test.com", "ADMIN", 1L);
+
+        // When & Then - one SELECT for all existing stalls and one write per stall, plus the
+        // layout insert and the stall index reload; a lookup per stall would double this
+        int totalStalls = EXISTING_STALLS + NEW_STALLS;
+        QueryBudget.assertMaxQueries(totalStalls + 4, () -> mockMvc.perform(post("/api/admin/map-layout")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.createdStalls").value(NEW_STALLS))
+                .andExpect(jsonPath("$.updatedStalls").value(EXISTING_STALLS)));
+
+        assertEquals(totalStalls, stallRepository.count());
+        assertEquals(100, stallRepository.findAll().stream()
+                .filter(stall -> stall.getName().equals("A0"))
+                .findFirst().orElseThrow().getX());
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.bookfair.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationMetricsTest {
+
+    private MeterRegistry meterRegistry;
+
+    private ReservationMetrics reservationMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        reservationMetrics = new ReservationMetrics();
+        ReflectionTestUtils.setField(reservationMetrics, "meterRegistry", meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testRecordCreate_WithoutTransactionRecordsImmediately() {
+        reservationMetrics.recordCreate(reservationMetrics.startCreate(), ReservationMetrics.OUTCOME_SUCCESS);
+
+        assertEquals(1, outcomeCount(ReservationMetrics.OUTCOME_SUCCESS));
+        assertNull(meterRegistry.find("reservation.create.stage").tag("stage", ReservationMetrics.STAGE_COMMIT).timer());
+    }
+
+    @Test
+    void testRecordCreate_WaitsForCommitAndTimesIt() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        reservationMetrics.recordCreate(reservationMetrics.startCreate(), ReservationMetrics.OUTCOME_SUCCESS);
+
+        // Then - nothing recorded until the transaction completes
+        assertEquals(0, outcomeCount(ReservationMetrics.OUTCOME_SUCCESS));
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(1, outcomeCount(ReservationMetrics.OUTCOME_SUCCESS));
+        assertEquals(1, meterRegistry.get("reservation.create.stage")
+                .tag("stage", ReservationMetrics.STAGE_COMMIT).tag("exception", "none").timer().count());
+    }
+
+    @Test
+    void testRecordCreate_FailedCommitIsAnError() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        reservationMetrics.recordCreate(reservationMetrics.startCreate(), ReservationMetrics.OUTCOME_SUCCESS);
+
+        // When
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Then
+        assertEquals(0, outcomeCount(ReservationMetrics.OUTCOME_SUCCESS));
+        assertEquals(1, outcomeCount(ReservationMetrics.OUTCOME_ERROR));
+        assertEquals(1, meterRegistry.get("reservation.create.stage")
+                .tag("stage", ReservationMetrics.STAGE_COMMIT).tag("exception", "RolledBack").timer().count());
+    }
+
+    // Run the registered synchronizations the way the transaction manager does on commit
+    private void complete(int status) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.beforeCommit(false);
+            synchronization.afterCompletion(status);
+        }
+    }
+
+    private double outcomeCount(String outcome) {
+        var counter = meterRegistry.find("reservation.create.outcome").tag("outcome", outcome).counter();
+        return counter != null ? counter.count() : 0;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.bookfair.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private JwtUtil jwtUtil;
+
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "test-secret-key-for-testing-only-at-least-32-bytes");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3600000L);
+        jwtUtil.init();
+
+        verifiedTokenCache = newCache(300000L);
+    }
+
+    @Test
+    void testGetVerifiedClaims_SecondLookupIsAHit() {
+        // Given
+        String token = jwtUtil.generateToken("admin@example.com", "ADMIN", 1L);
+
+        // When
+        Claims first = verifiedTokenCache.getVerifiedClaims(token);
+        Claims second = verifiedTokenCache.getVerifiedClaims(token);
+
+        // Then
+        assertEquals("admin@example.com", first.getSubject());
+        assertSame(first, second);
+        assertEquals(1, verifiedTokenCache.getMisses());
+        assertEquals(1, verifiedTokenCache.getHits());
+    }
+
+    @Test
+    void testGetVerifiedClaims_InvalidTokenIsNotCached() {
+        // Given
+        String token = jwtUtil.generateToken("admin@example.com", "ADMIN", 1L);
+        String tampered = token.substring(0, token.length() - 2) + "xx";
+
+        // When / Then
+        assertThrows(JwtException.class, () -> verifiedTokenCache.getVerifiedClaims(tampered));
+        assertThrows(JwtException.class, () -> verifiedTokenCache.getVerifiedClaims(tampered));
+        assertEquals(2, verifiedTokenCache.getMisses());
+        assertEquals(0, verifiedTokenCache.getSize());
+    }
+
+    @Test
+    void testGetVerifiedClaims_EntryExpiresAfterMaxTtl() throws Exception {
+        // Given
+        verifiedTokenCache = newCache(50L);
+        String token = jwtUtil.generateToken("admin@example.com", "ADMIN", 1L);
+        verifiedTokenCache.getVerifiedClaims(token);
+
+        // When
+        Thread.sleep(100);
+        verifiedTokenCache.getVerifiedClaims(token);
+
+        // Then - verified again
+        assertEquals(2, verifiedTokenCache.getMisses());
+        assertEquals(0, verifiedTokenCache.getHits());
+    }
+
+    private VerifiedTokenCache newCache(long maxTtlMs) {
+        VerifiedTokenCache cache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(cache, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(cache, "maxSize", 100);
+        ReflectionTestUtils.setField(cache, "maxTtlMs", maxTtlMs);
+        cache.init();
+        return cache;
+    }
+}
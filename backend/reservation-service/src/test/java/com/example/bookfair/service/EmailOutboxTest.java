@@ -0,0 +1,144 @@
+package com.example.bookfair.service;
+
+import com.example.bookfair.client.EmailClient;
+import com.example.bookfair.event.ReservationEmailEvent;
+import com.example.bookfair.metrics.ReservationMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxTest {
+
+    @Mock
+    private EmailClient emailClient;
+
+    private MeterRegistry meterRegistry;
+
+    private EmailOutbox emailOutbox;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ReservationMetrics reservationMetrics = new ReservationMetrics();
+        ReflectionTestUtils.setField(reservationMetrics, "meterRegistry", meterRegistry);
+
+        emailOutbox = new EmailOutbox();
+        ReflectionTestUtils.setField(emailOutbox, "emailClient", emailClient);
+        ReflectionTestUtils.setField(emailOutbox, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(emailOutbox, "reservationMetrics", reservationMetrics);
+        ReflectionTestUtils.setField(emailOutbox, "maxSize", 2);
+        ReflectionTestUtils.setField(emailOutbox, "maxAttempts", 3);
+        emailOutbox.init();
+    }
+
+    @Test
+    void testOnReservationEmail_SendsImmediately() {
+        // Given
+        Map<String, Object> request = emailRequest("a@example.com");
+
+        // When
+        emailOutbox.onReservationEmail(ReservationEmailEvent.confirmation(request));
+
+        // Then
+        verify(emailClient).sendReservationConfirmation(request);
+        verify(emailClient, never()).sendReservationRequestEmail(any());
+        assertEquals(0, emailOutbox.getPendingCount());
+        assertEquals(1, meterRegistry.get("reservation.create.stage")
+                .tag("stage", ReservationMetrics.STAGE_EMAIL_CONFIRMATION).timer().count());
+    }
+
+    @Test
+    void testOnReservationEmail_FailureIsQueued() {
+        // Given
+        when(emailClient.sendReservationRequestEmail(any())).thenThrow(new RuntimeException("email-service down"));
+
+        // When
+        emailOutbox.onReservationEmail(ReservationEmailEvent.request(emailRequest("a@example.com")));
+
+        // Then
+        assertEquals(1, emailOutbox.getPendingCount());
+        assertEquals(1.0, meterRegistry.get("email.outbox.pending").gauge().value());
+    }
+
+    @Test
+    void testOnReservationEmail_DropsWhenOutboxFull() {
+        // Given
+        when(emailClient.sendReservationRequestEmail(any())).thenThrow(new RuntimeException("email-service down"));
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            emailOutbox.onReservationEmail(ReservationEmailEvent.request(emailRequest(i + "@example.com")));
+        }
+
+        // Then - maxSize is 2
+        assertEquals(2, emailOutbox.getPendingCount());
+    }
+
+    @Test
+    void testRetryPending_DeliversQueuedEmail() {
+        // Given
+        Map<String, Object> request = emailRequest("a@example.com");
+        when(emailClient.sendReservationRequestEmail(request))
+                .thenThrow(new RuntimeException("email-service down"))
+                .thenReturn(Map.of("success", true));
+        emailOutbox.onReservationEmail(ReservationEmailEvent.request(request));
+
+        // When
+        emailOutbox.retryPending();
+
+        // Then
+        verify(emailClient, times(2)).sendReservationRequestEmail(request);
+        assertEquals(0, emailOutbox.getPendingCount());
+    }
+
+    @Test
+    void testRetryPending_GivesUpAfterMaxAttempts() {
+        // Given
+        when(emailClient.sendReservationRequestEmail(any())).thenThrow(new RuntimeException("email-service down"));
+        emailOutbox.onReservationEmail(ReservationEmailEvent.request(emailRequest("a@example.com")));
+
+        // When - attempts 2 and 3; maxAttempts is 3
+        emailOutbox.retryPending();
+        emailOutbox.retryPending();
+
+        // Then
+        assertEquals(0, emailOutbox.getPendingCount());
+        emailOutbox.retryPending();
+        verify(emailClient, times(3)).sendReservationRequestEmail(any());
+    }
+
+    @Test
+    void testRetryPending_StopsAtFirstFailure() {
+        // Given - two queued emails
+        when(emailClient.sendReservationRequestEmail(any())).thenThrow(new RuntimeException("email-service down"));
+        emailOutbox.onReservationEmail(ReservationEmailEvent.request(emailRequest("a@example.com")));
+        emailOutbox.onReservationEmail(ReservationEmailEvent.request(emailRequest("b@example.com")));
+
+        // When
+        emailOutbox.retryPending();
+
+        // Then - only the first was retried, both are still queued
+        verify(emailClient, times(3)).sendReservationRequestEmail(any());
+        assertEquals(2, emailOutbox.getPendingCount());
+    }
+
+    private Map<String, Object> emailRequest(String email) {
+        Map<String, Object> request = new HashMap<>();
+        request.put("email", email);
+        request.put("stallName", "A1");
+        return request;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.bookfair.service;
+
+import com.example.bookfair.event.ReservationQrCodeEvent;
+import com.example.bookfair.metrics.ReservationMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QrCodeFileWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private MeterRegistry meterRegistry;
+
+    private QrCodeFileWriter qrCodeFileWriter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ReservationMetrics reservationMetrics = new ReservationMetrics();
+        ReflectionTestUtils.setField(reservationMetrics, "meterRegistry", meterRegistry);
+
+        qrCodeFileWriter = new QrCodeFileWriter();
+        ReflectionTestUtils.setField(qrCodeFileWriter, "reservationMetrics", reservationMetrics);
+    }
+
+    @Test
+    void testOnReservationQrCode_WritesImage() {
+        // Given
+        Path qrDir = tempDir.resolve("qr-codes");
+        ReflectionTestUtils.setField(qrCodeFileWriter, "qrDirectory", qrDir.toString());
+
+        // When
+        qrCodeFileWriter.onReservationQrCode(new ReservationQrCodeEvent(7L, "Bookfair-7-3-a@example.com", "qr_7.png"));
+
+        // Then
+        assertTrue(Files.exists(qrDir.resolve("qr_7.png")));
+        assertEquals(1, meterRegistry.get("reservation.create.stage")
+                .tag("stage", ReservationMetrics.STAGE_QR_FILE_WRITE).timer().count());
+    }
+
+    @Test
+    void testOnReservationQrCode_FailureIsNotRethrown() throws Exception {
+        // Given - the QR directory path is taken by a regular file
+        Path blocked = Files.createFile(tempDir.resolve("not-a-directory"));
+        ReflectionTestUtils.setField(qrCodeFileWriter, "qrDirectory", blocked.toString());
+
+        // When & Then
+        assertDoesNotThrow(() -> qrCodeFileWriter.onReservationQrCode(
+                new ReservationQrCodeEvent(8L, "Bookfair-8-3-a@example.com", "qr_8.png")));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.bookfair.service;
+
+import com.example.bookfair.exception.ResourceNotFoundException;
+import com.example.bookfair.exception.ServiceUnavailableException;
+import com.example.bookfair.metrics.ReservationMetrics;
+import com.example.bookfair.repository.ReservationRepository;
+import com.example.bookfair.repository.StallRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationServiceTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private StallRepository stallRepository;
+
+    @Mock
+    private UserDirectory userDirectory;
+
+    @InjectMocks
+    private ReservationService reservationService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ReservationMetrics reservationMetrics = new ReservationMetrics();
+        ReflectionTestUtils.setField(reservationMetrics, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(reservationService, "reservationMetrics", reservationMetrics);
+    }
+
+    @Test
+    void testCreateReservation_UserNotFound() {
+        // Given
+        when(userDirectory.getByEmail("test@example.com")).thenReturn(null);
+
+        // When & Then
+        assertThrows(ResourceNotFoundException.class,
+                () -> reservationService.createReservation(1L, "test@example.com"));
+        assertEquals(1, outcomeCount(ReservationMetrics.OUTCOME_USER_NOT_FOUND));
+        verify(reservationRepository, never()).countByUserId(anyLong());
+    }
+
+    @Test
+    void testCreateReservation_UserServiceUnavailable() {
+        // Given
+        when(userDirectory.getByEmail("test@example.com")).thenThrow(new RuntimeException("Connection refused"));
+
+        // When & Then
+        assertThrows(ServiceUnavailableException.class,
+                () -> reservationService.createReservation(1L, "test@example.com"));
+        assertEquals(1, outcomeCount(ReservationMetrics.OUTCOME_ERROR));
+        assertEquals(0, outcomeCount(ReservationMetrics.OUTCOME_USER_NOT_FOUND));
+        verify(reservationRepository, never()).countByUserId(anyLong());
+    }
+
+    private double outcomeCount(String outcome) {
+        var counter = meterRegistry.find("reservation.create.outcome").tag("outcome", outcome).counter();
+        return counter != null ? counter.count() : 0;
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.bookfair.service;
+
+import com.example.bookfair.dto.StallCluster;
+import com.example.bookfair.event.StallsChangedEvent;
+import com.example.bookfair.model.Stall;
+import com.example.bookfair.repository.StallRepository;
+import com.example.bookfair.util.GenreDictionary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StallIndexTest {
+
+    @Mock
+    private StallRepository stallRepository;
+
+    private StallIndex stallIndex;
+    private List<Stall> stalls;
+
+    @BeforeEach
+    void setUp() {
+        stallIndex = new StallIndex();
+        ReflectionTestUtils.setField(stallIndex, "stallRepository", stallRepository);
+        ReflectionTestUtils.setField(stallIndex, "genreDictionary", new GenreDictionary());
+        ReflectionTestUtils.setField(stallIndex, "gridCellSize", 200);
+
+        stalls = new ArrayList<>(List.of(
+                stall(1L, "A1", "SMALL", false, 10, 10, "Fiction, Science"),
+                stall(2L, "A2", "MEDIUM", true, 50, 20, "Fiction"),
+                stall(3L, "B1", "LARGE", false, 450, 450, "Children's Books"),
+                stall(4L, "B2", "SMALL", false, 460, 470, "science,  history")
+        ));
+        when(stallRepository.findAll()).thenAnswer(invocation -> new ArrayList<>(stalls));
+        stallIndex.reload();
+    }
+
+    @Test
+    void testScheduledRefresh_SkippedOnceLoadedUnlessEnabled() {
+        // Given - loaded in setUp, periodic refresh off by default
+        stallIndex.scheduledRefresh();
+        verify(stallRepository, times(1)).findAll();
+
+        // When
+        ReflectionTestUtils.setField(stallIndex, "periodicRefresh", true);
+        stallIndex.scheduledRefresh();
+
+        // Then
+        verify(stallRepository, times(2)).findAll();
+    }
+
+    @Test
+    void testScheduledRefresh_RetriesFailedStartupLoad() {
+        // Given
+        StallIndex fresh = new StallIndex();
+        ReflectionTestUtils.setField(fresh, "stallRepository", stallRepository);
+        ReflectionTestUtils.setField(fresh, "genreDictionary", new GenreDictionary());
+        ReflectionTestUtils.setField(fresh, "gridCellSize", 200);
+        when(stallRepository.findAll())
+                .thenThrow(new RuntimeException("database down"))
+                .thenAnswer(invocation -> new ArrayList<>(stalls));
+        fresh.initialize();
+        assertEquals(0, fresh.snapshot().size());
+
+        // When
+        fresh.scheduledRefresh();
+        fresh.scheduledRefresh();
+
+        // Then - retried once, then no more rebuilds
+        assertEquals(4, fresh.snapshot().size());
+        verify(stallRepository, times(3)).findAll();
+    }
+
+    @Test
+    void testSearch_AnyGenre() {
+        assertEquals(List.of(1L, 2L), ids(stallIndex.search(List.of("fiction"), false, null, null, 0)));
+        assertEquals(List.of(1L, 3L, 4L),
+                ids(stallIndex.search(List.of("Science, children's books"), false, null, null, 0)));
+    }
+
+    @Test
+    void testSearch_AllGenres() {
+        assertEquals(List.of(1L), ids(stallIndex.search(List.of("Fiction", "SCIENCE"), true, null, null, 0)));
+        assertTrue(stallIndex.search(List.of("Fiction", "Poetry"), true, null, null, 0).isEmpty());
+    }
+
+    @Test
+    void testSearch_SizeAvailabilityAndLimit() {
+        assertEquals(List.of(1L, 4L), ids(stallIndex.search(List.of(), false, "small", true, 0)));
+        assertEquals(List.of(2L), ids(stallIndex.search(List.of(), false, null, false, 0)));
+        assertEquals(List.of(1L, 2L), ids(stallIndex.search(List.of(), false, null, null, 2)));
+        assertTrue(stallIndex.search(List.of(), false, "HUGE", null, 0).isEmpty());
+    }
+
+    @Test
+    void testInViewport_ReturnsStallsInsideBox() {
+        assertEquals(List.of(1L, 2L), ids(stallIndex.inViewport(0, 0, 100, 100)));
+        assertEquals(List.of(3L), ids(stallIndex.inViewport(440, 440, 455, 455)));
+        assertTrue(stallIndex.inViewport(-500, -500, -1, -1).isEmpty());
+    }
+
+    @Test
+    void testClustersInViewport_CountsPerGridCell() {
+        List<StallCluster> clusters = new ArrayList<>(stallIndex.clustersInViewport(0, 0, 1000, 1000));
+        clusters.sort(Comparator.comparingInt(StallCluster::getX));
+
+        assertEquals(2, clusters.size());
+        assertEquals(2, clusters.get(0).getCount());
+        assertEquals(1, clusters.get(0).getAvailable());
+        assertEquals(30, clusters.get(0).getX());
+        assertEquals(2, clusters.get(1).getCount());
+        assertEquals(2, clusters.get(1).getAvailable());
+    }
+
+    @Test
+    void testOnStallsChanged_ReservationIsAppliedWithoutRebuild() {
+        // Given
+        stalls.set(0, stall(1L, "A1", "SMALL", true, 10, 10, "Fiction, Science"));
+        when(stallRepository.findAllById(any())).thenReturn(List.of(stalls.get(0)));
+
+        // When
+        stallIndex.onStallsChanged(StallsChangedEvent.of(List.of(1L)));
+
+        // Then
+        assertTrue(stallIndex.snapshot().get(1L).isReserved());
+        assertEquals(List.of(3L, 4L), ids(stallIndex.search(List.of(), false, null, true, 0)));
+        verify(stallRepository, times(1)).findAll();
+        assertMatchesFullRebuild();
+    }
+
+    @Test
+    void testOnStallsChanged_GenreAndSizeChangesAreApplied() {
+        // Given
+        stalls.set(1, stall(2L, "A2", "LARGE", true, 50, 20, "History, Poetry"));
+        when(stallRepository.findAllById(any())).thenReturn(List.of(stalls.get(1)));
+
+        // When
+        stallIndex.onStallsChanged(StallsChangedEvent.of(List.of(2L)));
+
+        // Then
+        assertEquals(List.of(1L), ids(stallIndex.search(List.of("fiction"), false, null, null, 0)));
+        assertEquals(List.of(2L, 4L), ids(stallIndex.search(List.of("history"), false, null, null, 0)));
+        assertEquals(List.of(2L), ids(stallIndex.search(List.of("poetry"), false, null, null, 0)));
+        assertEquals(List.of(2L, 3L), ids(stallIndex.search(List.of(), false, "LARGE", null, 0)));
+        assertMatchesFullRebuild();
+    }
+
+    @Test
+    void testOnStallsChanged_MovedStallIsReindexed() {
+        // Given
+        stalls.set(0, stall(1L, "A1", "SMALL", false, 900, 900, "Fiction, Science"));
+        when(stallRepository.findAllById(any())).thenReturn(List.of(stalls.get(0)));
+
+        // When
+        stallIndex.onStallsChanged(StallsChangedEvent.of(List.of(1L)));
+
+        // Then
+        assertEquals(List.of(2L), ids(stallIndex.inViewport(0, 0, 100, 100)));
+        assertEquals(List.of(1L), ids(stallIndex.inViewport(800, 800, 1000, 1000)));
+        assertMatchesFullRebuild();
+    }
+
+    @Test
+    void testOnStallsChanged_DeletedStallIsRemoved() {
+        // Given
+        stalls.remove(2);
+        when(stallRepository.findAllById(any())).thenReturn(List.of());
+
+        // When
+        stallIndex.onStallsChanged(StallsChangedEvent.of(List.of(3L)));
+
+        // Then
+        assertNull(stallIndex.snapshot().get(3L));
+        assertEquals(3, stallIndex.snapshot().size());
+        assertTrue(stallIndex.search(List.of("Children's Books"), false, null, null, 0).isEmpty());
+        assertMatchesFullRebuild();
+    }
+
+    /**
+     * The incrementally updated index must answer like one rebuilt from the same rows
+     */
+    private void assertMatchesFullRebuild() {
+        List<List<Long>> incremental = sampleQueries(stallIndex);
+
+        StallIndex rebuilt = new StallIndex();
+        ReflectionTestUtils.setField(rebuilt, "stallRepository", stallRepository);
+        ReflectionTestUtils.setField(rebuilt, "genreDictionary",
+                ReflectionTestUtils.getField(stallIndex, "genreDictionary"));
+        ReflectionTestUtils.setField(rebuilt, "gridCellSize", 200);
+        rebuilt.reload();
+
+        assertEquals(sampleQueries(rebuilt), incremental);
+    }
+
+    private List<List<Long>> sampleQueries(StallIndex index) {
+        return List.of(
+                ids(index.search(List.of("fiction"), false, null, null, 0)),
+                ids(index.search(List.of("science", "history"), true, null, null, 0)),
+                ids(index.search(List.of("poetry"), false, null, null, 0)),
+                ids(index.search(List.of(), false, "SMALL", null, 0)),
+                ids(index.search(List.of(), false, "LARGE", null, 0)),
+                ids(index.search(List.of(), false, null, true, 0)),
+                ids(index.inViewport(0, 0, 1000, 1000)),
+                ids(index.inViewport(0, 0, 100, 100))
+        );
+    }
+
+    private static List<Long> ids(List<StallIndex.IndexedStall> stalls) {
+        return stalls.stream().map(StallIndex.IndexedStall::getId).collect(Collectors.toList());
+    }
+
+    static Stall stall(Long id, String name, String size, boolean reserved, int x, int y, String genres) {
+        Stall stall = new Stall();
+        stall.setId(id);
+        stall.setName(name);
+        stall.setSize(size);
+        stall.setReserved(reserved);
+        stall.setX(x);
+        stall.setY(y);
+        stall.setGenres(genres);
+        return stall;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.bookfair.service;
+
+import com.example.bookfair.dto.StallRecommendation;
+import com.example.bookfair.dto.UserResponse;
+import com.example.bookfair.repository.StallRepository;
+import com.example.bookfair.util.GenreDictionary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.example.bookfair.service.StallIndexTest.stall;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StallRecommendationServiceTest {
+
+    @Mock
+    private StallRepository stallRepository;
+
+    @Mock
+    private UserDirectory userDirectory;
+
+    private StallRecommendationService recommendationService;
+
+    @BeforeEach
+    void setUp() {
+        GenreDictionary genreDictionary = new GenreDictionary();
+
+        StallIndex stallIndex = new StallIndex();
+        ReflectionTestUtils.setField(stallIndex, "stallRepository", stallRepository);
+        ReflectionTestUtils.setField(stallIndex, "genreDictionary", genreDictionary);
+        ReflectionTestUtils.setField(stallIndex, "gridCellSize", 200);
+        when(stallRepository.findAll()).thenReturn(List.of(
+                stall(1L, "A1", "SMALL", false, 10, 10, "Fiction, Science"),
+                stall(2L, "A2", "MEDIUM", true, 50, 20, "Fiction"),
+                stall(3L, "B1", "LARGE", false, 450, 450, "Children's Books"),
+                stall(4L, "B2", "SMALL", false, 460, 470, "science,  history")
+        ));
+        stallIndex.reload();
+
+        recommendationService = new StallRecommendationService();
+        ReflectionTestUtils.setField(recommendationService, "stallIndex", stallIndex);
+        ReflectionTestUtils.setField(recommendationService, "genreDictionary", genreDictionary);
+        ReflectionTestUtils.setField(recommendationService, "userDirectory", userDirectory);
+        ReflectionTestUtils.setField(recommendationService, "genreWeight", 0.6);
+        ReflectionTestUtils.setField(recommendationService, "proximityWeight", 0.3);
+        ReflectionTestUtils.setField(recommendationService, "availabilityWeight", 0.1);
+        ReflectionTestUtils.setField(recommendationService, "distanceScale", 200.0);
+    }
+
+    @Test
+    void testRecommend_ExplicitGenresOnlyMatchingStalls() {
+        List<StallRecommendation> result = recommendationService.recommend(null, List.of("fiction"), null, null, null, 10);
+
+        // Both match the single genre fully; the free stall ranks higher
+        assertEquals(List.of(1L, 2L), ids(result));
+        assertEquals(0.7, result.get(0).getScore(), 1e-9);
+        assertEquals(0.6, result.get(1).getScore(), 1e-9);
+        assertEquals(List.of("Fiction"), result.get(0).getMatchedGenres());
+        assertNull(result.get(0).getDistance());
+    }
+
+    @Test
+    void testRecommend_ProximityBreaksGenreTies() {
+        List<StallRecommendation> result = recommendationService.recommend(null, List.of("science"), 460, 470, null, 10);
+
+        assertEquals(List.of(4L, 1L), ids(result));
+        assertEquals(0.0, result.get(0).getDistance(), 1e-9);
+        assertEquals(List.of("science"), result.get(0).getMatchedGenres());
+    }
+
+    @Test
+    void testRecommend_KeepsTopKOnly() {
+        // No genres: every free stall scores the same availability bonus, ties ordered by ID
+        List<StallRecommendation> result = recommendationService.recommend(null, null, null, null, null, 2);
+
+        assertEquals(List.of(1L, 3L), ids(result));
+    }
+
+    @Test
+    void testRecommend_AvailabilityFilter() {
+        List<StallRecommendation> result = recommendationService.recommend(null, List.of("fiction"), null, null, false, 10);
+
+        assertEquals(List.of(2L), ids(result));
+    }
+
+    @Test
+    void testRecommend_UsesUserGenres() {
+        when(userDirectory.getByEmail("user@example.com"))
+                .thenReturn(new UserResponse(7L, "User", "user@example.com", "USER", "children's books"));
+
+        List<StallRecommendation> result = recommendationService.recommend("user@example.com", null, null, null, null, 10);
+
+        assertEquals(List.of(3L), ids(result));
+    }
+
+    @Test
+    void testRecommend_UserLookupFailureFallsBackToNoGenres() {
+        when(userDirectory.getByEmail("user@example.com")).thenThrow(new RuntimeException("user-service down"));
+
+        List<StallRecommendation> result = recommendationService.recommend("user@example.com", null, null, null, true, 10);
+
+        assertEquals(List.of(1L, 3L, 4L), ids(result));
+    }
+
+    private static List<Long> ids(List<StallRecommendation> recommendations) {
+        return recommendations.stream().map(r -> r.getStall().getId()).collect(Collectors.toList());
+    }
+}
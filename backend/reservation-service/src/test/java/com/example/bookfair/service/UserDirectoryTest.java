@@ -0,0 +1,180 @@
+package com.example.bookfair.service;
+
+import com.example.bookfair.client.UserClient;
+import com.example.bookfair.dto.UserResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import feign.FeignException;
+import feign.Request;
+import feign.RequestTemplate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserDirectoryTest {
+
+    private static final String EMAIL = "vendor@example.com";
+
+    @Mock
+    private UserClient userClient;
+
+    private UserDirectory userDirectory;
+
+    @BeforeEach
+    void setUp() {
+        userDirectory = new UserDirectory();
+        ReflectionTestUtils.setField(userDirectory, "userClient", userClient);
+        ReflectionTestUtils.setField(userDirectory, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(userDirectory, "maxEntries", 100);
+        ReflectionTestUtils.setField(userDirectory, "ttlMs", 60000L);
+        ReflectionTestUtils.setField(userDirectory, "negativeTtlMs", 60000L);
+        userDirectory.init();
+    }
+
+    @Test
+    void testGetByEmail_CachesUnderBothKeys() {
+        // Given
+        when(userClient.getUserByEmail(EMAIL)).thenReturn(user("VENDOR"));
+
+        // When
+        UserResponse first = userDirectory.getByEmail(EMAIL);
+        UserResponse second = userDirectory.getByEmail(EMAIL);
+        UserResponse byId = userDirectory.getById(7L);
+
+        // Then - one call to user-service
+        assertEquals("VENDOR", first.getRole());
+        assertSame(first, second);
+        assertSame(first, byId);
+        verify(userClient, times(1)).getUserByEmail(EMAIL);
+        verify(userClient, never()).getUserById(anyLong());
+    }
+
+    @Test
+    void testGetByEmail_KeyIgnoresCase() {
+        // Given
+        when(userClient.getUserByEmail(EMAIL)).thenReturn(user("VENDOR"), user("ADMIN"));
+
+        // When
+        UserResponse first = userDirectory.getByEmail("Vendor@Example.com");
+        UserResponse second = userDirectory.getByEmail(EMAIL);
+        userDirectory.invalidate(null, "VENDOR@EXAMPLE.COM");
+        UserResponse afterInvalidation = userDirectory.getByEmail(EMAIL);
+
+        // Then - one entry for every spelling, dropped by any spelling
+        assertSame(first, second);
+        assertEquals("ADMIN", afterInvalidation.getRole());
+        verify(userClient, times(2)).getUserByEmail(EMAIL);
+    }
+
+    @Test
+    void testGetById_UnknownUserIsCached() {
+        // Given
+        when(userClient.getUserById(99L)).thenThrow(notFound());
+
+        // When / Then
+        assertNull(userDirectory.getById(99L));
+        assertNull(userDirectory.getById(99L));
+        verify(userClient, times(1)).getUserById(99L);
+    }
+
+    @Test
+    void testInvalidate_ByIdDropsBothKeys() {
+        // Given
+        when(userClient.getUserByEmail(EMAIL)).thenReturn(user("VENDOR"), user("ADMIN"));
+        when(userClient.getUserById(7L)).thenReturn(user("ADMIN"));
+        userDirectory.getByEmail(EMAIL);
+
+        // When
+        userDirectory.invalidate(7L, null);
+
+        // Then
+        assertEquals("ADMIN", userDirectory.getById(7L).getRole());
+        verify(userClient, times(1)).getUserById(7L);
+    }
+
+    @Test
+    void testInvalidate_DuringInFlightLoadIsNotLost() throws Exception {
+        // Given - a lookup by email that is still waiting on user-service
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userClient.getUserByEmail(EMAIL))
+                .thenAnswer(invocation -> {
+                    loading.countDown();
+                    assertTrue(release.await(5, TimeUnit.SECONDS));
+                    return user("VENDOR");
+                });
+        when(userClient.getUserById(7L)).thenReturn(user("ADMIN"));
+        CompletableFuture<UserResponse> inFlight = CompletableFuture.supplyAsync(() -> userDirectory.getByEmail(EMAIL));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        // When - user-service changes the role and invalidates by id while the load is running
+        userDirectory.invalidate(7L, null);
+        release.countDown();
+
+        // Then - the in-flight caller gets what it read, but nothing stale stays cached
+        assertEquals("VENDOR", inFlight.get(5, TimeUnit.SECONDS).getRole());
+        assertEquals("ADMIN", userDirectory.getById(7L).getRole());
+        assertEquals("ADMIN", userDirectory.getByEmail(EMAIL).getRole());
+        verify(userClient, times(1)).getUserByEmail(EMAIL);
+        verify(userClient, times(1)).getUserById(7L);
+    }
+
+    @Test
+    void testGetByEmail_FallsBackToLastKnownWhenUserServiceDown() {
+        // Given - a cached user whose entry has since been dropped
+        when(userClient.getUserByEmail(EMAIL)).thenReturn(user("VENDOR"));
+        userDirectory.getByEmail(EMAIL);
+        expireById();
+        when(userClient.getUserById(7L)).thenThrow(new RuntimeException("user-service down"));
+
+        // When
+        UserResponse user = userDirectory.getById(7L);
+
+        // Then
+        assertEquals("VENDOR", user.getRole());
+    }
+
+    @Test
+    void testGetById_ClientErrorIsNotMasked() {
+        // Given
+        when(userClient.getUserByEmail(EMAIL)).thenReturn(user("VENDOR"));
+        userDirectory.getByEmail(EMAIL);
+        expireById();
+        FeignException.BadRequest badRequest = new FeignException.BadRequest("bad request", request(), null, null);
+        when(userClient.getUserById(7L)).thenThrow(badRequest);
+
+        // When / Then
+        assertSame(badRequest, assertThrows(FeignException.BadRequest.class, () -> userDirectory.getById(7L)));
+    }
+
+    // Drop the by-id entries but keep the last-known copies, as if they had expired
+    private void expireById() {
+        ((Cache<?, ?>) ReflectionTestUtils.getField(userDirectory, "byId")).invalidateAll();
+    }
+
+    private UserResponse user(String role) {
+        return new UserResponse(7L, "vendor", EMAIL, role, "Fiction");
+    }
+
+    private FeignException.NotFound notFound() {
+        return new FeignException.NotFound("not found", request(), null, null);
+    }
+
+    private Request request() {
+        return Request.create(Request.HttpMethod.GET, "http://user-service/api/user", Collections.emptyMap(),
+                null, StandardCharsets.UTF_8, new RequestTemplate());
+    }
+}
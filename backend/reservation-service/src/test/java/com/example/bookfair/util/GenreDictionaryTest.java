@@ -0,0 +1,49 @@
+package com.example.bookfair.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GenreDictionaryTest {
+
+    private final GenreDictionary genreDictionary = new GenreDictionary();
+
+    @Test
+    void testIdOf_NormalizesNames() {
+        int id = genreDictionary.idOf("  Children's   Books");
+
+        assertEquals(id, genreDictionary.idOf("children's books"));
+        assertEquals(id, genreDictionary.lookup("CHILDREN'S BOOKS"));
+        assertEquals("Children's   Books", genreDictionary.nameOf(id));
+        assertEquals(1, genreDictionary.size());
+    }
+
+    @Test
+    void testEncode_RegistersEachGenre() {
+        BitSet bits = genreDictionary.encode("Fiction, Science,,History");
+
+        assertEquals(3, bits.cardinality());
+        assertEquals(3, genreDictionary.size());
+        assertTrue(bits.get(genreDictionary.lookup("science")));
+    }
+
+    @Test
+    void testEncodeKnown_DoesNotGrowDictionary() {
+        genreDictionary.encode("Fiction");
+
+        BitSet bits = genreDictionary.encodeKnown(List.of("fiction, Poetry", "Travel"));
+
+        assertEquals(1, bits.cardinality());
+        assertEquals(1, genreDictionary.size());
+        assertEquals(-1, genreDictionary.lookup("Poetry"));
+    }
+
+    @Test
+    void testSplitAll_ExpandsCommaSeparatedValues() {
+        assertEquals(List.of("a", " b", "c"), GenreDictionary.splitAll(List.of("a, b", "c", " ")));
+        assertTrue(GenreDictionary.splitAll(null).isEmpty());
+    }
+}
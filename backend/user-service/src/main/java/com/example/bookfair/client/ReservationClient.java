@@ -2,6 +2,9 @@ package com.example.bookfair.client;
 
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 
 import java.util.Map;
 
@@ -13,4 +16,14 @@ public interface ReservationClient {
     
     @GetMapping("/api/admin/user-counts-internal")
     Map<Long, Long> getReservationCountsByUser();
+
+    // Requires an admin token; the calling admin's Authorization header is forwarded
+    @PostMapping("/api/admin/token-revocations")
+    Map<String, Object> revokeTokens(@RequestHeader("Authorization") String authorization,
+                                     @RequestBody Map<String, String> request);
+
+    // Requires an admin token; drops the user from reservation-service's user cache
+    @PostMapping("/api/admin/user-cache-invalidations")
+    Map<String, Object> invalidateUserCache(@RequestHeader("Authorization") String authorization,
+                                            @RequestBody Map<String, Object> request);
 }
@@ -0,0 +1,57 @@
+package com.example.bookfair.client;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.openfeign.FeignClientBuilder;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * One {@link ReservationClient} per reservation-service instance.
+ * State held in each instance's memory (revoked tokens, the user cache) has to be updated
+ * on every instance, not on whichever one a load-balanced call would reach.
+ */
+@Component
+public class ReservationInstances {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationInstances.class);
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    // Base URLs of all instances; defaults to the single reservation.service.url
+    @Value("${reservation.service.instances:${reservation.service.url:http://localhost:8082}}")
+    private List<String> instanceUrls;
+
+    private final Map<String, ReservationClient> clients = new LinkedHashMap<>();
+
+    @PostConstruct
+    void init() {
+        FeignClientBuilder builder = new FeignClientBuilder(applicationContext);
+        for (int i = 0; i < instanceUrls.size(); i++) {
+            String url = instanceUrls.get(i).trim();
+            clients.put(url, builder.forType(ReservationClient.class, "reservation-service-" + i).url(url).build());
+        }
+    }
+
+    /**
+     * Run the call against every instance; a failing instance is logged and does not stop the others
+     */
+    public void forEach(String action, Consumer<ReservationClient> call) {
+        clients.forEach((url, client) -> {
+            try {
+                call.accept(client);
+            } catch (Exception e) {
+                logger.error("Failed to {} on reservation-service instance {}: {}", action, url, e.getMessage());
+            }
+        });
+    }
+}
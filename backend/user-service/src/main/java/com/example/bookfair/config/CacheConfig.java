@@ -0,0 +1,13 @@
+package com.example.bookfair.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the user lookup cache (spring.cache.*). Kept out of the application class so
+ * web slice tests, which have no CacheManager, are not affected.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
@@ -0,0 +1,52 @@
+package com.example.bookfair.config;
+
+import feign.RequestInterceptor;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Feign configuration to pass trace context to downstream services.
+ * Calls go through the pooled Apache HttpClient 5 client (spring.cloud.openfeign.httpclient.*).
+ */
+@Configuration
+public class FeignConfig {
+
+    /**
+     * Propagate the current trace (W3C traceparent) so downstream spans join this request's trace
+     */
+    @Bean
+    public RequestInterceptor tracingRequestInterceptor(ObjectProvider<Tracer> tracerProvider,
+                                                        ObjectProvider<Propagator> propagatorProvider) {
+        return template -> {
+            Tracer tracer = tracerProvider.getIfAvailable();
+            Propagator propagator = propagatorProvider.getIfAvailable();
+            if (tracer == null || propagator == null) {
+                return;
+            }
+            Span span = tracer.currentSpan();
+            if (span != null) {
+                propagator.inject(span.context(), template, (carrier, key, value) -> carrier.header(key, value));
+            }
+        };
+    }
+
+    /**
+     * Connection pool usage of the Feign HTTP client (httpcomponents.httpclient.pool.*)
+     */
+    @Bean
+    public MeterBinder feignConnectionPoolMetrics(ObjectProvider<HttpClientConnectionManager> connectionManagerProvider) {
+        return registry -> {
+            if (connectionManagerProvider.getIfAvailable() instanceof PoolingHttpClientConnectionManager pool) {
+                new PoolingHttpClientConnectionManagerMetricsBinder(pool, "feign").bindTo(registry);
+            }
+        };
+    }
+}
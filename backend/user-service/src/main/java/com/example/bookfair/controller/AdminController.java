@@ -1,8 +1,11 @@
 package com.example.bookfair.user.controller;
 
 import com.example.bookfair.client.ReservationClient;
+import com.example.bookfair.client.ReservationInstances;
+import com.example.bookfair.service.UserService;
 import com.example.bookfair.user.model.User;
 import com.example.bookfair.user.repository.UserRepository;
+import com.example.bookfair.user.security.TokenRevocationList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,25 +30,35 @@ public class AdminController {
     @Autowired
     private BCryptPasswordEncoder encoder;
 
+    @Autowired
+    private UserService userService;
+
     @Autowired
     private ReservationClient reservationClient;
 
-    // Helper method to check if user is admin
-    private boolean isAdmin(Authentication authentication) {
-        if (authentication == null) return false;
-        String email = authentication.getName();
-        Optional<User> userOpt = userRepository.findByEmail(email);
-        return userOpt.isPresent() && "ADMIN".equals(userOpt.get().getRole());
+    @Autowired
+    private ReservationInstances reservationInstances;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    // Reject the user's existing tokens here and in every reservation-service instance, so a
+    // role change or deletion takes effect immediately instead of when the token expires
+    private void revokeTokens(String email, String authorization) {
+        tokenRevocationList.revoke(email);
+        reservationInstances.forEach("revoke tokens of " + email,
+                client -> client.revokeTokens(authorization, Map.of("email", email)));
+    }
+
+    // Drop the user from every reservation-service instance's user cache so it sees the change right away
+    private void invalidateUserCache(User user, String authorization) {
+        reservationInstances.forEach("invalidate cached user " + user.getEmail(),
+                client -> client.invalidateUserCache(authorization, Map.of("id", user.getId(), "email", user.getEmail())));
     }
 
     // Get all users
     @GetMapping("/users")
     public ResponseEntity<?> getAllUsers(Authentication authentication) {
-        if (!isAdmin(authentication)) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(Map.of("error", "Access denied. Admin role required."));
-        }
-
         List<User> users = userRepository.findAll();
         
         // Fetch reservation counts from reservation-service
@@ -79,27 +92,23 @@ public class AdminController {
     public ResponseEntity<?> updateUserRole(
             @PathVariable Long userId,
             @RequestBody Map<String, String> request,
+            @RequestHeader("Authorization") String authorization,
             Authentication authentication) {
-        if (!isAdmin(authentication)) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(Map.of("error", "Access denied. Admin role required."));
-        }
-
         String newRole = request.get("role");
         if (newRole == null || (!newRole.equals("USER") && !newRole.equals("ADMIN"))) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Map.of("error", "Invalid role. Must be USER or ADMIN."));
         }
 
-        Optional<User> userOpt = userRepository.findById(userId);
+        Optional<User> userOpt = userService.updateRole(userId, newRole);
         if (userOpt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", "User not found"));
         }
 
         User user = userOpt.get();
-        user.setRole(newRole);
-        userRepository.save(user);
+        revokeTokens(user.getEmail(), authorization);
+        invalidateUserCache(user, authorization);
 
         return ResponseEntity.ok(Map.of("message", "User role updated successfully", "user", Map.of(
                 "id", user.getId(),
@@ -110,24 +119,20 @@ public class AdminController {
 
     // Delete user
     @DeleteMapping("/users/{userId}")
-    public ResponseEntity<?> deleteUser(@PathVariable Long userId, Authentication authentication) {
-        if (!isAdmin(authentication)) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(Map.of("error", "Access denied. Admin role required."));
-        }
-
-        Optional<User> userOpt = userRepository.findById(userId);
+    public ResponseEntity<?> deleteUser(@PathVariable Long userId,
+                                        @RequestHeader("Authorization") String authorization,
+                                        Authentication authentication) {
+        // Note: Reservations should be deleted via reservation-service API
+        // This is a limitation - in a true microservice, we'd need to call reservation-service
+        Optional<User> userOpt = userService.deleteUser(userId);
         if (userOpt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", "User not found"));
         }
 
         User user = userOpt.get();
-        
-        // Note: Reservations should be deleted via reservation-service API
-        // This is a limitation - in a true microservice, we'd need to call reservation-service
-        
-        userRepository.delete(user);
+        revokeTokens(user.getEmail(), authorization);
+        invalidateUserCache(user, authorization);
 
         return ResponseEntity.ok(Map.of("message", "User deleted successfully. Note: Reservations should be deleted separately via reservation-service."));
     }
@@ -135,11 +140,6 @@ public class AdminController {
     // Get statistics (combines user and reservation statistics)
     @GetMapping("/stats")
     public ResponseEntity<?> getStats(Authentication authentication) {
-        if (!isAdmin(authentication)) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(Map.of("error", "Access denied. Admin role required."));
-        }
-
         long totalUsers = userRepository.count();
         long adminUsers = userRepository.findAll().stream()
                 .filter(u -> "ADMIN".equals(u.getRole()))
@@ -0,0 +1,14 @@
+package com.example.bookfair.exception;
+
+/**
+ * Exception thrown when a bounded resource is saturated and the request is rejected (503)
+ */
+public class ServiceBusyException extends RuntimeException {
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+
+    public ServiceBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -4,7 +4,7 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "ux_users_email", columnList = "email", unique = true))
 public class User {
 
     @Id
@@ -16,7 +16,8 @@ public class User {
     private String username;
 
 
-    @Column(nullable = false, unique = true, length = 150)
+    // Unique index ux_users_email (migration V2)
+    @Column(nullable = false, length = 150)
     private String email;
 
     @Column(nullable = false)
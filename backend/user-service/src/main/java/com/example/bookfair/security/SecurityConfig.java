@@ -4,6 +4,8 @@ import com.example.bookfair.config.CorsConfig;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -35,9 +37,21 @@ public class SecurityConfig {
                         // /api/user/profile and /api/user/genres still require authentication (handled by controller)
                         .requestMatchers("/api/user/email/**").permitAll()
                         .requestMatchers("/api/user/**").permitAll()
-                        .requestMatchers("/api/admin/users/**", "/api/admin/stats").authenticated()
+                        // Role comes from the JWT "role" claim, see JwtAuthenticationFilter
+                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        // Health checks (gateway) and metrics scraping; not routed by the gateway
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                        // JFR recordings expose stack traces and heap statistics
+                        .requestMatchers("/actuator/jfr", "/actuator/jfr/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
+                .exceptionHandling(exceptions -> exceptions
+                        .accessDeniedHandler((request, response, accessDeniedException) -> {
+                            response.setStatus(HttpStatus.FORBIDDEN.value());
+                            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                            response.getWriter().write("{\"error\":\"Access denied. Admin role required.\"}");
+                        })
+                )
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
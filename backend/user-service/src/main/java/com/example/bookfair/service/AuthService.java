@@ -9,9 +9,8 @@ import com.example.bookfair.client.EmailClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -29,7 +28,7 @@ public class AuthService {
     private UserRepository userRepository;
 
     @Autowired
-    private BCryptPasswordEncoder encoder;
+    private PasswordHashingService passwordHashingService;
 
     @Autowired
     private JwtUtil jwtUtil;
@@ -38,9 +37,10 @@ public class AuthService {
     private EmailClient emailClient;
 
     /**
-     * Register a new user
+     * Register a new user. Not transactional: the password is hashed on the hashing pool
+     * before the insert, so no database connection is held while waiting for it. A duplicate
+     * registered concurrently is caught by the unique index on email.
      */
-    @Transactional
     public Map<String, Object> register(UserRegistrationRequest request) {
         String email = request.getEmail().toLowerCase();
 
@@ -52,11 +52,15 @@ public class AuthService {
         User user = new User();
         user.setUsername(request.getUsername());
         user.setEmail(email);
-        user.setPassword(encoder.encode(request.getPassword()));
+        user.setPassword(passwordHashingService.encode(request.getPassword()));
         user.setGenres(request.getGenres());
         user.setRole("USER");
 
-        userRepository.save(user);
+        try {
+            userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new BadRequestException("Email already registered");
+        }
 
         // Send welcome email via email-service (non-blocking)
         try {
@@ -81,12 +85,22 @@ public class AuthService {
         Optional<User> userOpt = userRepository.findByEmail(email);
 
         // For security, use a generic error message
-        if (userOpt.isEmpty() || !encoder.matches(password, userOpt.get().getPassword())) {
+        if (userOpt.isEmpty() || !passwordHashingService.matches(password, userOpt.get().getPassword())) {
             throw new BadRequestException("Invalid email or password");
         }
 
         User user = userOpt.get();
 
+        // Rehash with the current cost factor if the stored hash is older; a failure leaves the old hash
+        if (passwordHashingService.upgradeEncoding(user.getPassword())) {
+            try {
+                userRepository.updatePassword(user.getId(), passwordHashingService.encode(password));
+                logger.info("Rehashed password for user: {}", user.getEmail());
+            } catch (Exception e) {
+                logger.warn("Failed to rehash password for {}: {}", user.getEmail(), e.getMessage());
+            }
+        }
+
         // Generate JWT token
         String token = jwtUtil.generateToken(user.getEmail(), user.getRole(), user.getId());
 
@@ -9,20 +9,36 @@ import com.example.bookfair.user.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
 
 /**
- * Service for user profile business logic
+ * Service for user profile business logic.
+ * Cross-service lookups by id and email are cached (usersById, usersByEmail, the latter keyed
+ * by lower-cased email); every change to a user goes through this service and evicts both
+ * entries once the change is committed.
  */
 @Service
 public class UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
+    public static final String CACHE_USERS_BY_ID = "usersById";
+    public static final String CACHE_USERS_BY_EMAIL = "usersByEmail";
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     /**
      * Get user profile
      */
@@ -54,13 +70,44 @@ public class UserService {
 
         user.setGenres(request.getGenres());
         userRepository.save(user);
+        evictCached(user);
         
         logger.info("Updated genres for user: {}", authenticatedEmail);
     }
 
+    /**
+     * Change a user's role, or empty if the user does not exist
+     */
+    @Transactional
+    public Optional<User> updateRole(Long userId, String role) {
+        Optional<User> userOpt = userRepository.findById(userId);
+        userOpt.ifPresent(user -> {
+            user.setRole(role);
+            userRepository.save(user);
+            evictCached(user);
+            logger.info("Updated role for user {} to {}", user.getEmail(), role);
+        });
+        return userOpt;
+    }
+
+    /**
+     * Delete a user, returning the deleted user, or empty if the user does not exist
+     */
+    @Transactional
+    public Optional<User> deleteUser(Long userId) {
+        Optional<User> userOpt = userRepository.findById(userId);
+        userOpt.ifPresent(user -> {
+            userRepository.delete(user);
+            evictCached(user);
+            logger.info("Deleted user: {}", user.getEmail());
+        });
+        return userOpt;
+    }
+
     /**
      * Get user by ID (for cross-service communication)
      */
+    @Cacheable(cacheNames = CACHE_USERS_BY_ID)
     public UserResponse getUserById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
@@ -77,6 +124,7 @@ public class UserService {
     /**
      * Get user by email (for cross-service communication)
      */
+    @Cacheable(cacheNames = CACHE_USERS_BY_EMAIL, key = "#email.toLowerCase()")
     public UserResponse getUserByEmail(String email) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
@@ -89,5 +137,33 @@ public class UserService {
                 user.getGenres() != null ? user.getGenres() : ""
         );
     }
-}
 
+    /**
+     * Evict the user's cached lookups. Inside a transaction this happens after commit,
+     * so a concurrent lookup cannot re-cache the old row.
+     */
+    private void evictCached(User user) {
+        Long id = user.getId();
+        String email = user.getEmail().toLowerCase();
+        Runnable evict = () -> {
+            Cache byId = cacheManager.getCache(CACHE_USERS_BY_ID);
+            Cache byEmail = cacheManager.getCache(CACHE_USERS_BY_EMAIL);
+            if (byId != null) {
+                byId.evict(id);
+            }
+            if (byEmail != null) {
+                byEmail.evict(email);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        } else {
+            evict.run();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+-- Users table as previously created by Hibernate ddl-auto=update.
+-- IF NOT EXISTS keeps this a no-op on databases that already have it.
+CREATE TABLE IF NOT EXISTS users (
+    id            BIGINT       NOT NULL AUTO_INCREMENT,
+    business_name VARCHAR(100) NOT NULL,
+    email         VARCHAR(150) NOT NULL,
+    password      VARCHAR(255) NOT NULL,
+    genres        VARCHAR(255),
+    role          VARCHAR(255) NOT NULL,
+    created_at    DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,17 @@
+-- Unique index backing UserRepository.findByEmail (login and cross-service lookups).
+-- Databases created by Hibernate may already have an auto-named unique key on email;
+-- the index is only added when no unique index on the column exists yet.
+SET @has_unique_email := (
+    SELECT COUNT(*)
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE()
+      AND table_name = 'users'
+      AND column_name = 'email'
+      AND non_unique = 0
+);
+SET @ddl := IF(@has_unique_email = 0,
+    'CREATE UNIQUE INDEX ux_users_email ON users (email)',
+    'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
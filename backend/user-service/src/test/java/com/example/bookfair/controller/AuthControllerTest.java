@@ -3,13 +3,19 @@ package com.example.bookfair.controller;
 import com.example.bookfair.dto.LoginRequest;
 import com.example.bookfair.dto.LoginResponse;
 import com.example.bookfair.dto.UserRegistrationRequest;
+import com.example.bookfair.exception.ServiceBusyException;
 import com.example.bookfair.service.AuthService;
 import com.example.bookfair.user.controller.AuthController;
+import com.example.bookfair.user.security.GatewayIdentityVerifier;
+import com.example.bookfair.user.security.TokenRevocationList;
+import com.example.bookfair.user.security.VerifiedTokenCache;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -20,6 +26,8 @@ import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+// The slice picks up JwtAuthenticationFilter; mock its dependencies and skip the filter chain
+@AutoConfigureMockMvc(addFilters = false)
 @WebMvcTest(AuthController.class)
 class AuthControllerTest {
 
@@ -29,6 +37,15 @@ class AuthControllerTest {
     @MockBean
     private AuthService authService;
 
+    @MockBean
+    private GatewayIdentityVerifier gatewayIdentityVerifier;
+
+    @MockBean
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @MockBean
+    private TokenRevocationList tokenRevocationList;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -99,5 +116,23 @@ class AuthControllerTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
     }
-}
 
+    @Test
+    void testLogin_HashingPoolSaturated() throws Exception {
+        // Given
+        LoginRequest request = new LoginRequest();
+        request.setEmail("test@example.com");
+        request.setPassword("password123");
+
+        when(authService.login(any(LoginRequest.class)))
+                .thenThrow(new ServiceBusyException("Too many concurrent sign-ins, please try again shortly"));
+
+        // When & Then
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.error").value("SERVICE_BUSY"));
+    }
+}
@@ -1,7 +1,11 @@
 package com.example.bookfair.exception;
 
+import com.example.bookfair.user.security.GatewayIdentityVerifier;
+import com.example.bookfair.user.security.TokenRevocationList;
+import com.example.bookfair.user.security.VerifiedTokenCache;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
@@ -10,6 +14,8 @@ import org.springframework.test.web.servlet.MockMvc;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+// The slice picks up JwtAuthenticationFilter; mock its dependencies and skip the filter chain
+@AutoConfigureMockMvc(addFilters = false)
 @WebMvcTest(GlobalExceptionHandler.class)
 class GlobalExceptionHandlerTest {
 
@@ -19,6 +25,15 @@ class GlobalExceptionHandlerTest {
     @MockBean
     private GlobalExceptionHandler globalExceptionHandler;
 
+    @MockBean
+    private GatewayIdentityVerifier gatewayIdentityVerifier;
+
+    @MockBean
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @MockBean
+    private TokenRevocationList tokenRevocationList;
+
     @Test
     void testExceptionHandler_ReturnsErrorResponse() throws Exception {
         // This test verifies that the GlobalExceptionHandler is properly configured
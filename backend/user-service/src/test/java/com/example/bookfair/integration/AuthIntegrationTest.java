@@ -2,6 +2,7 @@ package com.example.bookfair.integration;
 
 import com.example.bookfair.dto.LoginRequest;
 import com.example.bookfair.dto.UserRegistrationRequest;
+import com.example.bookfair.support.QueryBudget;
 import com.example.bookfair.user.model.User;
 import com.example.bookfair.user.repository.UserRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -93,5 +94,23 @@ class AuthIntegrationTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
     }
-}
 
+    @Test
+    void testLogin_SingleQuery() throws Exception {
+        User user = new User();
+        user.setEmail("budget@test.com");
+        user.setUsername("Budget User");
+        user.setPassword(encoder.encode("password123"));
+        userRepository.save(user);
+
+        LoginRequest loginRequest = new LoginRequest();
+        loginRequest.setEmail("budget@test.com");
+        loginRequest.setPassword("password123");
+
+        // Login looks the user up once and must not touch the database again
+        QueryBudget.assertMaxQueries(1, () -> mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isOk()));
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.bookfair.integration;
+
+import com.example.bookfair.dto.UserResponse;
+import com.example.bookfair.service.UserService;
+import com.example.bookfair.user.model.User;
+import com.example.bookfair.user.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: the cache is evicted after commit, so each write must really commit
+@SpringBootTest
+@ActiveProfiles("test")
+class UserCacheIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        clearCaches();
+
+        user = new User();
+        user.setEmail("cached@test.com");
+        user.setUsername("Cached User");
+        user.setPassword("not-used");
+        user.setRole("VENDOR");
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+        clearCaches();
+    }
+
+    @Test
+    void testGetUserByEmail_KeyIgnoresCase() {
+        // Given
+        UserResponse loaded = userService.getUserByEmail("cached@test.com");
+
+        // When - a differently cased lookup is a cache hit
+        UserResponse cached = userService.getUserByEmail("Cached@Test.COM");
+
+        // Then
+        assertSame(loaded, cached);
+        assertNotNull(cacheManager.getCache(UserService.CACHE_USERS_BY_EMAIL).get("cached@test.com"));
+    }
+
+    @Test
+    void testUpdateRole_CachedLookupsSeeNewRole() {
+        // Given - both lookups cached with the old role
+        assertEquals("VENDOR", userService.getUserById(user.getId()).getRole());
+        assertEquals("VENDOR", userService.getUserByEmail("cached@test.com").getRole());
+
+        // When
+        userService.updateRole(user.getId(), "ADMIN");
+
+        // Then - evicted after commit
+        assertNull(cacheManager.getCache(UserService.CACHE_USERS_BY_ID).get(user.getId()));
+        assertNull(cacheManager.getCache(UserService.CACHE_USERS_BY_EMAIL).get("cached@test.com"));
+        assertEquals("ADMIN", userService.getUserById(user.getId()).getRole());
+        assertEquals("ADMIN", userService.getUserByEmail("cached@test.com").getRole());
+    }
+
+    private void clearCaches() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+}
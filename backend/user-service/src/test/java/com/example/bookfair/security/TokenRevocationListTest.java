@@ -0,0 +1,82 @@
+package com.example.bookfair.user.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenRevocationListTest {
+
+    private static final String EMAIL = "test@example.com";
+
+    private TokenRevocationList tokenRevocationList;
+
+    @BeforeEach
+    void setUp() {
+        tokenRevocationList = new TokenRevocationList();
+        ReflectionTestUtils.setField(tokenRevocationList, "tokenLifetimeMs", 7200000L);
+    }
+
+    @Test
+    void testIsRevoked_UnknownSubject() {
+        assertFalse(tokenRevocationList.isRevoked(EMAIL, new Date(0)));
+    }
+
+    @Test
+    void testIsRevoked_TokenIssuedBeforeRevocation() {
+        // Given
+        Date issuedAt = new Date(System.currentTimeMillis() - 5000);
+
+        // When
+        tokenRevocationList.revoke(EMAIL);
+
+        // Then
+        assertTrue(tokenRevocationList.isRevoked(EMAIL, issuedAt));
+        assertFalse(tokenRevocationList.isRevoked("other@example.com", issuedAt));
+    }
+
+    @Test
+    void testIsRevoked_TokenIssuedInSameSecondAsRevocation() {
+        // Given
+        tokenRevocationList.revoke(EMAIL);
+
+        // When - a fresh login right after the revocation; iat is whole seconds
+        long now = System.currentTimeMillis();
+        Date issuedAt = new Date(now - now % 1000);
+
+        // Then
+        assertFalse(tokenRevocationList.isRevoked(EMAIL, issuedAt));
+    }
+
+    @Test
+    void testIsRevoked_NoIssuedAt() {
+        tokenRevocationList.revoke(EMAIL);
+
+        assertTrue(tokenRevocationList.isRevoked(EMAIL, null));
+    }
+
+    @Test
+    void testPurgeExpired_KeepsEntriesWithinTokenLifetime() {
+        tokenRevocationList.revoke(EMAIL);
+
+        tokenRevocationList.purgeExpired();
+
+        assertTrue(tokenRevocationList.isRevoked(EMAIL, null));
+    }
+
+    @Test
+    void testPurgeExpired_RemovesEntriesOlderThanTokenLifetime() {
+        // Given - every revocation is already older than the token lifetime
+        ReflectionTestUtils.setField(tokenRevocationList, "tokenLifetimeMs", -1000L);
+        tokenRevocationList.revoke(EMAIL);
+
+        // When
+        tokenRevocationList.purgeExpired();
+
+        // Then
+        assertFalse(tokenRevocationList.isRevoked(EMAIL, null));
+    }
+}
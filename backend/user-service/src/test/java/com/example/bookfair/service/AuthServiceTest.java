@@ -4,6 +4,7 @@ import com.example.bookfair.dto.LoginRequest;
 import com.example.bookfair.dto.LoginResponse;
 import com.example.bookfair.dto.UserRegistrationRequest;
 import com.example.bookfair.exception.BadRequestException;
+import com.example.bookfair.exception.ServiceBusyException;
 import com.example.bookfair.user.model.User;
 import com.example.bookfair.user.repository.UserRepository;
 import com.example.bookfair.security.JwtUtil;
@@ -14,7 +15,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.Map;
 import java.util.Optional;
@@ -31,7 +33,7 @@ class AuthServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private BCryptPasswordEncoder encoder;
+    private PasswordHashingService passwordHashingService;
 
     @Mock
     private JwtUtil jwtUtil;
@@ -71,7 +73,7 @@ class AuthServiceTest {
     void testRegister_Success() {
         // Given
         when(userRepository.findByEmail(anyString())).thenReturn(Optional.empty());
-        when(encoder.encode(anyString())).thenReturn("$2a$10$encodedPassword");
+        when(passwordHashingService.encode(anyString())).thenReturn("$2a$10$encodedPassword");
         when(userRepository.save(any(User.class))).thenReturn(user);
 
         // When
@@ -81,7 +83,7 @@ class AuthServiceTest {
         assertNotNull(result);
         assertEquals("Registered successfully", result.get("message"));
         verify(userRepository).findByEmail("test@example.com");
-        verify(encoder).encode("password123");
+        verify(passwordHashingService).encode("password123");
         verify(userRepository).save(any(User.class));
         verify(emailClient, times(1)).sendWelcomeEmail(any(Map.class));
     }
@@ -100,11 +102,25 @@ class AuthServiceTest {
         verify(userRepository, never()).save(any(User.class));
     }
 
+    @Test
+    void testRegister_ConcurrentDuplicateEmail() {
+        // Given - another registration inserted the email after the existence check
+        when(userRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+        when(passwordHashingService.encode(anyString())).thenReturn("$2a$10$encodedPassword");
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("ux_users_email"));
+
+        // When & Then
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> authService.register(registrationRequest));
+        assertEquals("Email already registered", exception.getMessage());
+        verify(emailClient, never()).sendWelcomeEmail(any());
+    }
+
     @Test
     void testLogin_Success() {
         // Given
         when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
-        when(encoder.matches("password123", user.getPassword())).thenReturn(true);
+        when(passwordHashingService.matches("password123", user.getPassword())).thenReturn(true);
         when(jwtUtil.generateToken(anyString(), anyString(), anyLong())).thenReturn("jwt-token");
 
         // When
@@ -117,7 +133,7 @@ class AuthServiceTest {
         assertNotNull(response.getUser());
         assertEquals("test@example.com", response.getUser().getEmail());
         verify(userRepository).findByEmail("test@example.com");
-        verify(encoder).matches("password123", user.getPassword());
+        verify(passwordHashingService).matches("password123", user.getPassword());
         verify(jwtUtil).generateToken("test@example.com", "USER", 1L);
     }
 
@@ -139,7 +155,7 @@ class AuthServiceTest {
     void testLogin_InvalidPassword() {
         // Given
         when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
-        when(encoder.matches("wrongpassword", user.getPassword())).thenReturn(false);
+        when(passwordHashingService.matches("wrongpassword", user.getPassword())).thenReturn(false);
 
         loginRequest.setPassword("wrongpassword");
 
@@ -149,8 +165,55 @@ class AuthServiceTest {
         });
 
         verify(userRepository).findByEmail("test@example.com");
-        verify(encoder).matches("wrongpassword", user.getPassword());
+        verify(passwordHashingService).matches("wrongpassword", user.getPassword());
         verify(jwtUtil, never()).generateToken(anyString(), anyString(), anyLong());
     }
-}
 
+    @Test
+    void testLogin_RehashesOutdatedPassword() {
+        // Given
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+        when(passwordHashingService.matches("password123", "$2a$10$encodedPassword")).thenReturn(true);
+        when(passwordHashingService.upgradeEncoding("$2a$10$encodedPassword")).thenReturn(true);
+        when(passwordHashingService.encode("password123")).thenReturn("$2a$12$rehashedPassword");
+        when(jwtUtil.generateToken(anyString(), anyString(), anyLong())).thenReturn("jwt-token");
+
+        // When
+        LoginResponse response = authService.login(loginRequest);
+
+        // Then
+        assertEquals("jwt-token", response.getToken());
+        verify(userRepository).updatePassword(1L, "$2a$12$rehashedPassword");
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void testLogin_RehashFailureStillLogsIn() {
+        // Given
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+        when(passwordHashingService.matches("password123", "$2a$10$encodedPassword")).thenReturn(true);
+        when(passwordHashingService.upgradeEncoding("$2a$10$encodedPassword")).thenReturn(true);
+        when(passwordHashingService.encode("password123")).thenReturn("$2a$12$rehashedPassword");
+        when(userRepository.updatePassword(1L, "$2a$12$rehashedPassword"))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"));
+        when(jwtUtil.generateToken(anyString(), anyString(), anyLong())).thenReturn("jwt-token");
+
+        // When
+        LoginResponse response = authService.login(loginRequest);
+
+        // Then
+        assertEquals("jwt-token", response.getToken());
+    }
+
+    @Test
+    void testLogin_HashingPoolSaturated() {
+        // Given
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+        when(passwordHashingService.matches("password123", user.getPassword()))
+                .thenThrow(new ServiceBusyException("Too many concurrent sign-ins, please try again shortly"));
+
+        // When & Then
+        assertThrows(ServiceBusyException.class, () -> authService.login(loginRequest));
+        verify(jwtUtil, never()).generateToken(anyString(), anyString(), anyLong());
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.bookfair.support;
+
+import com.example.bookfair.metrics.QueryCountInspector;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fails a test when an action runs more SQL statements than its budget.
+ * Counts statements prepared by Hibernate on the test thread, which is also the thread
+ * MockMvc requests run on.
+ *
+ * <pre>
+ * QueryBudget.assertMaxQueries(1, () -> mockMvc.perform(post("/api/auth/login")...));
+ * </pre>
+ */
+public final class QueryBudget {
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    private QueryBudget() {
+    }
+
+    /**
+     * Run the action and assert it executed at most maxQueries statements
+     *
+     * @return the number of statements executed
+     */
+    public static long assertMaxQueries(long maxQueries, Action action) throws Exception {
+        long before = QueryCountInspector.count();
+        action.run();
+        long executed = QueryCountInspector.count() - before;
+        assertTrue(executed <= maxQueries,
+                () -> "Expected at most " + maxQueries + " SQL statements but " + executed + " were executed");
+        return executed;
+    }
+}
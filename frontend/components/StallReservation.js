@@ -2,6 +2,7 @@ import { useState, useEffect } from 'react';
 import { useRouter } from 'next/router';
 import dynamic from 'next/dynamic';
 import reservationsApi from '../lib/api/reservations';
+import bffApi from '../lib/api/bff';
 
 // Dynamically import MapViewCanvas to avoid SSR issues with react-konva
 const MapViewCanvas = dynamic(() => import('./MapViewCanvas'), {
@@ -37,9 +38,7 @@ export default function StallReservation() {
     }
     
     setUser(JSON.parse(savedUser));
-    loadStalls();
-    loadUserReservations();
-    loadMapLayout();
+    loadMapData();
   }, [router]);
 
   // Reload map layout when component becomes visible (e.g., when navigating back to the page)
@@ -54,15 +53,6 @@ export default function StallReservation() {
     return () => document.removeEventListener('visibilitychange', handleVisibilityChange);
   }, []);
 
-  const loadUserReservations = async () => {
-    try {
-      const data = await reservationsApi.getMyReservations();
-      setUserReservations(data.length || 0);
-    } catch (err) {
-      console.error('Failed to load user reservations:', err);
-    }
-  };
-
   const loadStalls = async () => {
     try {
       setIsLoadingStalls(true);
@@ -81,37 +71,38 @@ export default function StallReservation() {
     }
   };
 
-  const loadMapLayout = async () => {
+  // Initial load: stalls, map layout and the user's reservations in one request
+  const loadMapData = async () => {
     try {
-      const data = await reservationsApi.getMapLayout();
-      
-      // Check for error in response
-      if (data.error) {
-        console.error('Error loading map layout:', data.error);
-        setUseSavedMap(false);
-        setMapLayout(null);
-        return;
+      setIsLoadingStalls(true);
+      const data = await bffApi.getMap();
+      setStalls(data.stalls || []);
+      if (data.reservations) {
+        setUserReservations(data.reservations.length || 0);
+      } else {
+        console.error('Failed to load user reservations');
       }
-      
-      // Check if halls exist and have stalls
-      if (data.halls && Array.isArray(data.halls) && data.halls.length > 0) {
-        // Check if at least one hall has stalls
-        const hasStalls = data.halls.some(hall => hall.stalls && Array.isArray(hall.stalls) && hall.stalls.length > 0);
-        
-        if (hasStalls) {
-        console.log('Loaded saved map layout:', data);
-        setMapLayout(data);
-        setUseSavedMap(true);
-        } else {
-          console.log('Map layout has halls but no stalls, using SVG fallback');
-          setUseSavedMap(false);
-          setMapLayout(null);
-        }
+      setDebugInfo('');
+      setMessage('');
+      if (data.layout) {
+        applyMapLayout(data.layout);
       } else {
-        console.log('Empty map layout, using SVG fallback');
         setUseSavedMap(false);
         setMapLayout(null);
       }
+    } catch (err) {
+      console.error('Failed to load map data:', err);
+      setMessage(err.message || 'Failed to load stalls. Please check if the backend is running.');
+      setMessageType('error');
+      setDebugInfo('');
+    } finally {
+      setIsLoadingStalls(false);
+    }
+  };
+
+  const loadMapLayout = async () => {
+    try {
+      applyMapLayout(await reservationsApi.getMapLayout());
     } catch (err) {
       // 404 or other errors are expected if no layout exists
       if (err.status !== 404) {
@@ -124,6 +115,36 @@ export default function StallReservation() {
     }
   };
 
+  const applyMapLayout = (data) => {
+    // Check for error in response
+    if (data.error) {
+      console.error('Error loading map layout:', data.error);
+      setUseSavedMap(false);
+      setMapLayout(null);
+      return;
+    }
+    
+    // Check if halls exist and have stalls
+    if (data.halls && Array.isArray(data.halls) && data.halls.length > 0) {
+      // Check if at least one hall has stalls
+      const hasStalls = data.halls.some(hall => hall.stalls && Array.isArray(hall.stalls) && hall.stalls.length > 0);
+      
+      if (hasStalls) {
+      console.log('Loaded saved map layout:', data);
+      setMapLayout(data);
+      setUseSavedMap(true);
+      } else {
+        console.log('Map layout has halls but no stalls, using SVG fallback');
+        setUseSavedMap(false);
+        setMapLayout(null);
+      }
+    } else {
+      console.log('Empty map layout, using SVG fallback');
+      setUseSavedMap(false);
+      setMapLayout(null);
+    }
+  };
+
   const handleStallClick = (stall) => {
     console.log('handleStallClick called with stall:', stall);
     console.log('Stall properties:', {
@@ -0,0 +1,24 @@
+/**
+ * Aggregate (backend-for-frontend) endpoints served by the gateway.
+ * Each returns the data a page needs on load in one round trip.
+ */
+import apiClient from './client';
+
+export const bffApi = {
+  /**
+   * Get the home page data: { user, reservations, unavailable }
+   */
+  async getHome() {
+    return apiClient.get('/api/bff/home');
+  },
+
+  /**
+   * Get the map page data: { layout, stalls, reservations, unavailable }
+   * (reservations only when logged in)
+   */
+  async getMap() {
+    return apiClient.get('/api/bff/map');
+  },
+};
+
+export default bffApi;
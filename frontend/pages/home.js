@@ -1,7 +1,6 @@
 import { useState, useEffect } from "react";
 import { useRouter } from "next/router";
-import userApi from "../lib/api/user";
-import reservationsApi from "../lib/api/reservations";
+import bffApi from "../lib/api/bff";
 
 export default function Home() {
   const router = useRouter();
@@ -16,40 +15,31 @@ export default function Home() {
     if (savedUser) {
       const userData = JSON.parse(savedUser);
       setUser(userData);
-      fetchUserProfile();
-      fetchUserReservations();
+      fetchHomeData();
     } else {
       router.push("/login");
     }
   }, [router]);
 
-  // Fetch user profile
-  const fetchUserProfile = async () => {
+  // Fetch profile and reservations in one request
+  const fetchHomeData = async () => {
     try {
       setIsLoading(true);
-      const data = await userApi.getProfile();
+      const data = await bffApi.getHome();
       // Update user data with latest from server
       setUser(prevUser => ({
         ...prevUser,
-        ...data
+        ...data.user
       }));
+      const userReservationList = data.reservations || [];
+      setUserReservations(userReservationList.length);
+      setReservations(userReservationList);
     } catch (err) {
-      console.error("Failed to fetch profile:", err);
-    } finally {
-      setIsLoading(false);
-    }
-  };
-
-  // Fetch user reservations count and details
-  const fetchUserReservations = async () => {
-    try {
-      const data = await reservationsApi.getMyReservations();
-      setUserReservations(data.length || 0);
-      setReservations(data || []);
-    } catch (err) {
-      console.error("Failed to fetch reservations:", err);
+      console.error("Failed to fetch home data:", err);
       setUserReservations(0);
       setReservations([]);
+    } finally {
+      setIsLoading(false);
     }
   };
 